@@ -0,0 +1,42 @@
+package mysamples.grid.benchmarks;
+
+import mysamples.common.udim.dim2D.pos.Pos2DInt32;
+import mysamples.grid.v1.model.CellModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CellModel#setData(Object)} mit der Benachrichtigung einer wachsenden Anzahl von
+ * Daten-Listenern.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellModelBenchmark {
+    
+    @Param({"0", "1", "8", "64"})
+    public int listeners;
+    
+    private CellModel<Integer> cell;
+    private int                counter;
+    
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        cell = new CellModel<>(new Pos2DInt32(0, 0), null);
+        for (int i = 0; i < listeners; i++) {
+            cell.addDataListener((changed, oldData, newData) -> blackhole.consume(newData));
+        }
+    }
+    
+    @Benchmark
+    public void setData() {
+        cell.setData(counter++);
+    }
+}
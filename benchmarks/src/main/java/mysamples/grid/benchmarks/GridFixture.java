@@ -0,0 +1,103 @@
+package mysamples.grid.benchmarks;
+
+import mysamples.common.udim.UDim;
+import mysamples.common.udim.dim2D.pos.Pos2DInt32;
+import mysamples.grid.v1.GridEditor;
+import mysamples.grid.v1.PositionViewMapper;
+import mysamples.grid.v1.impl.Pos2DViewMapper;
+import mysamples.grid.v1.impl.SliceViewMapper;
+import mysamples.grid.v1.model.CellModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gemeinsamer Aufbau der Benchmarks: ein Grid der Größe {@code "<Spalten>x<Zeilen>"}, als 2D
+ * über den {@link Pos2DViewMapper} oder als 3D mit {@link #DEPTH} Ebenen über einen
+ * {@link SliceViewMapper} auf den Achsen 0 und 1. {@code "3D-projection"} nutzt denselben
+ * Schnitt ohne {@link PositionViewMapper#getSliceIndices()} ({@link ProjectedMapper}), die
+ * Ansicht läuft dann wie bei eigenen Mappern über die zwischengespeicherte Projektion.
+ * Gefüllt wird die sichtbare Ebene.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+final class GridFixture {
+    
+    static final int VIEW_ID = 1;
+    static final int DEPTH   = 4;
+    
+    final int                 columns;
+    final int                 rows;
+    final boolean             volume;
+    final UDim                dimensions;
+    final GridEditor<Integer> editor;
+    
+    GridFixture(String size, String dims) {
+        int separator = size.indexOf('x');
+        this.columns = Integer.parseInt(size.substring(0, separator));
+        this.rows = Integer.parseInt(size.substring(separator + 1));
+        this.volume = dims.startsWith("3D");
+        if(volume) {
+            dimensions = new PosInt32(columns, rows, DEPTH);
+            SliceViewMapper slice = new SliceViewMapper(dimensions, 0, 1, PosInt32::new);
+            editor = new GridEditor<>(VIEW_ID, "3D-projection".equals(dims)
+                                               ? new ProjectedMapper(slice)
+                                               : slice, dimensions, null);
+        } else {
+            dimensions = new Pos2DInt32(columns, rows);
+            editor = new GridEditor<>(VIEW_ID, new Pos2DViewMapper(), dimensions, null);
+        }
+    }
+    
+    UDim position(int column, int row) {
+        return volume
+               ? new PosInt32(column, row, 0)
+               : new Pos2DInt32(column, row);
+    }
+    
+    static int value(int column, int row) {
+        return (column * 31 + row) % 1_000;
+    }
+    
+    /**
+     * Füllt die sichtbare Ebene als Ganzes über {@link GridEditor#addCells(java.util.Collection)}.
+     */
+    GridFixture fill() {
+        List<CellModel<Integer>> cells = new ArrayList<>(columns * rows);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                cells.add(editor.createCell(position(column, row), value(column, row)));
+            }
+        }
+        editor.addCells(cells);
+        return this;
+    }
+    
+    /**
+     * Schnitt-Ansicht ohne Schnitt-Angabe: erzwingt den Weg über {@code ViewProjectionBuilder}
+     * und {@code ViewProjectionCache}.
+     */
+    static final class ProjectedMapper implements PositionViewMapper {
+        
+        private final SliceViewMapper slice;
+        
+        ProjectedMapper(SliceViewMapper slice) {
+            this.slice = slice;
+        }
+        
+        @Override
+        public UDim convert(int x, int y) {
+            return slice.convert(x, y);
+        }
+        
+        @Override
+        public int getHorizontalAxisIndex() {
+            return slice.getHorizontalAxisIndex();
+        }
+        
+        @Override
+        public int getVerticalAxisIndex() {
+            return slice.getVerticalAxisIndex();
+        }
+    }
+}
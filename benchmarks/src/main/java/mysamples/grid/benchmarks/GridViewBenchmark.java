@@ -0,0 +1,77 @@
+package mysamples.grid.benchmarks;
+
+import mysamples.grid.v1.GridView;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Darstellung ohne Bildschirm ({@code java.awt.headless}): eine Datenänderung bis zur
+ * aktualisierten Zelle ({@code GridView#onCellUpdate}) und das Layout
+ * ({@code AspectedGridLayout#layoutContainer}). Beides läuft wie in der Anwendung im EDT.
+ * {@link GridView.RenderMode#COMPONENTS} erzeugt eine Komponente je Zelle und ist bei den
+ * großen Grids nicht sinnvoll messbar.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class GridViewBenchmark {
+    
+    private static final int WIDTH  = 800;
+    private static final int HEIGHT = 600;
+    
+    @Param({"10x10", "100x100", "500x500", "2000x2000"})
+    public String size;
+    
+    @Param({"2D", "3D"})
+    public String dims;
+    
+    @Param({"VIRTUALIZED", "STAMP"})
+    public String renderMode;
+    
+    private GridFixture       fixture;
+    private GridView<Integer> view;
+    private int               counter;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws InvocationTargetException, InterruptedException {
+        fixture = new GridFixture(size, dims).fill();
+        SwingUtilities.invokeAndWait(() -> {
+            view = new GridView<>(fixture.editor);
+            view.setRenderMode(GridView.RenderMode.valueOf(renderMode));
+            view.setSize(WIDTH, HEIGHT);
+            view.activateView(GridFixture.VIEW_ID);
+            view.doLayout();
+        });
+    }
+    
+    /**
+     * Setzt die Daten einer Zelle im oberen linken, sichtbaren Bereich.
+     */
+    @Benchmark
+    public void cellUpdate() throws InvocationTargetException, InterruptedException {
+        int step   = counter++;
+        int column = step % Math.min(fixture.columns, 10);
+        int row    = step / 10 % Math.min(fixture.rows, 10);
+        SwingUtilities.invokeAndWait(() -> fixture.editor.setData(fixture.position(column, row), step));
+    }
+    
+    /**
+     * Ändert die Breite abwechselnd um einen Punkt, damit die Zellgröße jedes Mal neu berechnet wird.
+     */
+    @Benchmark
+    public void layoutContainer() throws InvocationTargetException, InterruptedException {
+        int width = WIDTH + (counter++ & 1);
+        SwingUtilities.invokeAndWait(() -> {
+            view.setSize(width, HEIGHT);
+            view.doLayout();
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package mysamples.grid.benchmarks;
+
+import mysamples.common.udim.UDim;
+
+import java.util.Arrays;
+
+/**
+ * N-dimensionale Koordinate für die 3D-Varianten der Benchmarks.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+final class PosInt32 implements UDim {
+    
+    private final int[] values;
+    
+    PosInt32(int... values) {
+        this.values = values.clone();
+    }
+    
+    @Override
+    public int getV(int i) {
+        return values[i];
+    }
+    
+    @Override
+    public int getDimensions() {
+        return values.length;
+    }
+    
+    @Override
+    public void consumed() {
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof PosInt32 && Arrays.equals(values, ((PosInt32) obj).values);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+    
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
@@ -0,0 +1,54 @@
+package mysamples.grid.benchmarks;
+
+import mysamples.grid.v1.model.CellModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suchen über die {@code CollectionSearchEngine}s des Editors nach Daten und Positionen, sowie
+ * die Suche nach einem exakten Wert mit und ohne Daten-Index.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class SearchBenchmark {
+    
+    @Param({"10x10", "100x100", "500x500", "2000x2000"})
+    public String size;
+    
+    @Param({"2D", "3D"})
+    public String dims;
+    
+    @Param({"false", "true"})
+    public boolean dataIndex;
+    
+    private GridFixture fixture;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new GridFixture(size, dims).fill();
+        fixture.editor.setDataIndexEnabled(dataIndex);
+    }
+    
+    @Benchmark
+    public List<CellModel<Integer>> findByDataPredicate() {
+        return fixture.editor.getSearchEngineData().findSync(data -> data != null && data % 97 == 0);
+    }
+    
+    @Benchmark
+    public List<CellModel<Integer>> findByPosition() {
+        return fixture.editor.getSearchEnginePosition().findSync(position -> position.getV(0) == 7);
+    }
+    
+    @Benchmark
+    public List<CellModel<Integer>> findByData() {
+        return fixture.editor.findByData(GridFixture.value(7, 3));
+    }
+}
@@ -0,0 +1,58 @@
+package mysamples.grid.benchmarks;
+
+import mysamples.common.udim.UDim;
+import mysamples.grid.v1.ViewProjectionBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aktivieren einer Ansicht: mit und ohne zwischengespeicherte Projektion, sowie das Ordnen der
+ * Positionen selbst ({@code GridEditor#getViewPositionsOrdered}, vormals
+ * {@code getViewModelsOrdered}), das an den {@link ViewProjectionBuilder} delegiert.
+ * <p>
+ * Der Cache greift nur für Ansichten ohne Schnitt-Angabe ({@code 2D}, {@code 3D-projection}).
+ * Reine Schnitte ({@code 3D}) werden per Schrittweiten adressiert, dort messen
+ * {@link #activateView()} und {@link #activateViewCached()} denselben Weg ohne Projektion.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class ViewActivationBenchmark {
+    
+    @Param({"10x10", "100x100", "500x500", "2000x2000"})
+    public String size;
+    
+    @Param({"2D", "3D", "3D-projection"})
+    public String dims;
+    
+    private GridFixture fixture;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new GridFixture(size, dims).fill();
+        fixture.editor.activateView(GridFixture.VIEW_ID);
+    }
+    
+    @Benchmark
+    public void activateView() {
+        fixture.editor.getProjectionCache().clear();
+        fixture.editor.activateView(GridFixture.VIEW_ID);
+    }
+    
+    @Benchmark
+    public void activateViewCached() {
+        fixture.editor.activateView(GridFixture.VIEW_ID);
+    }
+    
+    @Benchmark
+    public List<UDim> viewPositionsOrdered() {
+        return new ViewProjectionBuilder(fixture.editor.getViews().get(GridFixture.VIEW_ID), fixture.dimensions, null).build();
+    }
+}
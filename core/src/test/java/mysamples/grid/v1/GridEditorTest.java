@@ -0,0 +1,216 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.UDim;
+import mysamples.common.udim.dim2D.pos.Pos2DInt32;
+import mysamples.grid.v1.impl.Pos2DViewMapper;
+import mysamples.grid.v1.model.Aggregators;
+import mysamples.grid.v1.model.CellModel;
+import mysamples.grid.v1.model.HashEqual;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class GridEditorTest {
+    
+    private static final int VIEW_ID = 1;
+    
+    private GridEditor<Integer> editor;
+    
+    @Before
+    public void setUp() {
+        editor = new GridEditor<>(VIEW_ID, new Pos2DViewMapper(), new Pos2DInt32(20, 10), null);
+        editor.activateView(VIEW_ID);
+    }
+    
+    @Test
+    public void setDataCreatesCell() {
+        assertNull(editor.getCell(new Pos2DInt32(3, 4)));
+        editor.setData(new Pos2DInt32(3, 4), 7);
+        assertEquals(Integer.valueOf(7), editor.getCell(new Pos2DInt32(3, 4)).getData());
+        assertEquals(1, editor.getCellCount());
+    }
+    
+    @Test
+    public void findByDataWithAndWithoutIndex() {
+        for (int x = 0; x < 20; x++) {
+            editor.setData(new Pos2DInt32(x, 0), x % 3);
+        }
+        assertEquals(7, editor.findByData(0).size());
+        editor.setDataIndexEnabled(true);
+        assertEquals(7, editor.findByData(0).size());
+        
+        // der Index folgt den Änderungen
+        editor.setData(new Pos2DInt32(0, 0), 1);
+        editor.setData(new Pos2DInt32(0, 5), 0);
+        assertEquals(7, editor.findByData(0).size());
+        assertEquals(8, editor.findByData(1).size());
+        assertTrue(editor.findByData(5).isEmpty());
+    }
+    
+    @Test
+    public void dataIndexUsesHashEqual() {
+        HashEqual<Integer> lastDigit = new HashEqual<Integer>() {
+            @Override
+            public boolean isEqual(Integer a, Integer b) {
+                return a % 10 == b % 10;
+            }
+            
+            @Override
+            public int hashOf(Integer value) {
+                return value % 10;
+            }
+        };
+        GridEditor<Integer> custom = new GridEditor<>(VIEW_ID, new Pos2DViewMapper(), new Pos2DInt32(5, 5), lastDigit);
+        custom.setDataIndexEnabled(true);
+        custom.setData(new Pos2DInt32(0, 0), 13);
+        custom.setData(new Pos2DInt32(1, 0), 23);
+        assertEquals(2, custom.findByData(3).size());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void dataIndexRejectsEqualWithoutHash() {
+        GridEditor<Integer> custom = new GridEditor<>(VIEW_ID, new Pos2DViewMapper(), new Pos2DInt32(5, 5), Objects::equals);
+        custom.setDataIndexEnabled(true);
+    }
+    
+    @Test
+    public void dataIndexKeepsWritesDuringBuild() throws InterruptedException {
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 20; x++) {
+                editor.setData(new Pos2DInt32(x, y), 0);
+            }
+        }
+        Thread writer = new Thread(() -> {
+            for (int y = 0; y < 10; y++) {
+                for (int x = 0; x < 20; x++) {
+                    editor.setData(new Pos2DInt32(x, y), 1);
+                }
+            }
+        });
+        writer.start();
+        editor.setDataIndexEnabled(true);
+        writer.join();
+        assertEquals(200, editor.findByData(1).size());
+        assertTrue(editor.findByData(0).isEmpty());
+    }
+    
+    @Test
+    public void aggregateKeepsWritesDuringBuild() throws InterruptedException {
+        for (int x = 0; x < 20; x++) {
+            editor.setData(new Pos2DInt32(x, 0), 0);
+        }
+        Thread writer = new Thread(() -> {
+            for (int y = 0; y < 10; y++) {
+                for (int x = 0; x < 20; x++) {
+                    editor.setData(new Pos2DInt32(x, y), 1);
+                }
+            }
+        });
+        writer.start();
+        CellAggregate<Integer, Double> sums = editor.addAggregate(CellAggregate.Orientation.ROW, Aggregators.sum(Integer::doubleValue));
+        writer.join();
+        for (int y = 0; y < 10; y++) {
+            assertEquals(Double.valueOf(20), sums.get(y));
+        }
+    }
+    
+    @Test
+    public void addCellsStoresAllCells() {
+        List<CellModel<Integer>> cells = new ArrayList<>();
+        for (int x = 0; x < 20; x++) {
+            cells.add(editor.createCell(new Pos2DInt32(x, 2), x));
+        }
+        editor.setData(new Pos2DInt32(0, 2), 99);
+        editor.addCells(cells);
+        assertEquals(20, editor.getCellCount());
+        // bereits belegte Positionen übernehmen nur die Daten
+        assertEquals(Integer.valueOf(0), editor.getCell(new Pos2DInt32(0, 2)).getData());
+    }
+    
+    @Test
+    public void bulkLoaderStoresAllCells() throws InterruptedException {
+        editor.setDataIndexEnabled(true);
+        try (GridBulkLoader<Integer> loader = editor.openBulkLoader()) {
+            for (int y = 0; y < 10; y++) {
+                for (int x = 0; x < 20; x++) {
+                    loader.put(new Pos2DInt32(x, y), x);
+                }
+            }
+        }
+        assertFalse(editor.isBulkLoading());
+        assertEquals(200, editor.getCellCount());
+        assertEquals(10, editor.findByData(4).size());
+        
+        // nach dem Import werden Änderungen wieder gemeldet und indiziert
+        editor.setData(new Pos2DInt32(4, 0), 5);
+        assertEquals(9, editor.findByData(4).size());
+    }
+    
+    @Test
+    public void findByDataScansDuringBulkLoad() {
+        editor.setDataIndexEnabled(true);
+        editor.setData(new Pos2DInt32(0, 0), 1);
+        try (GridBulkLoader<Integer> loader = editor.openBulkLoader()) {
+            editor.setData(new Pos2DInt32(0, 0), 2);
+            assertTrue(editor.findByData(1).isEmpty());
+            assertEquals(1, editor.findByData(2).size());
+        }
+        assertTrue(editor.findByData(1).isEmpty());
+        assertEquals(1, editor.findByData(2).size());
+    }
+    
+    @Test
+    public void regionQueriesSkipCellsWithoutData() {
+        editor.getOrCreateCell(new Pos2DInt32(1, 1));
+        editor.setData(new Pos2DInt32(5, 1), 3);
+        editor.setData(new Pos2DInt32(8, 1), 4);
+        
+        assertEquals(2, editor.findInRegion(new Rectangle(0, 0, 20, 10)).size());
+        assertEquals(new Point(5, 1), editor.nextNonEmpty(-1, 1));
+        
+        editor.setData(new Pos2DInt32(5, 1), null);
+        editor.setData(new Pos2DInt32(1, 1), 2);
+        assertEquals(new Point(1, 1), editor.nextNonEmpty(-1, 1));
+        assertEquals(new Point(8, 1), editor.nextNonEmpty(1, 1));
+        assertEquals(new Point(1, 1), editor.previousNonEmpty(8, 1));
+        assertEquals(2, editor.findInRegion(new Rectangle(0, 0, 20, 10)).size());
+    }
+    
+    @Test
+    public void batchOnlyCollectsChangesOfItsThread() throws InterruptedException {
+        List<UDim> reported = new ArrayList<>();
+        editor.addCellChangeListener((source, args) -> reported.add(args.getPosition()));
+        editor.beginUpdate();
+        try {
+            Thread writer = new Thread(() -> editor.setData(new Pos2DInt32(1, 1), 1));
+            writer.start();
+            writer.join();
+            assertEquals(1, reported.size());
+            assertEquals(1, reported.get(0).getV(0));
+            assertTrue(editor.isUpdating());
+            
+            editor.setData(new Pos2DInt32(2, 2), 2);
+            assertEquals(1, reported.size());
+        } finally {
+            editor.endUpdate();
+        }
+        assertFalse(editor.isUpdating());
+    }
+    
+    @Test
+    public void unknownViewHasNoViewIndex() {
+        assertEquals(22, editor.getViewIndex(2, 1));
+        editor.activateView(VIEW_ID + 1);
+        assertEquals(-1, editor.getViewIndex(2, 1));
+        assertNull(editor.getViewCell(2, 1));
+    }
+}
@@ -0,0 +1,214 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.dim2D.pos.Pos2DInt32;
+import mysamples.grid.v1.impl.Pos2DViewMapper;
+import mysamples.grid.v1.model.CellModel;
+import mysamples.grid.v1.model.ValueCodecs;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class GridJournalTest {
+    
+    private static final PositionFactory FACTORY = values -> new Pos2DInt32(values[0], values[1]);
+    
+    private Path directory;
+    
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("grid-journal");
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+    
+    private static GridEditor<Integer> newEditor() {
+        GridEditor<Integer> editor = new GridEditor<>(1, new Pos2DViewMapper(), new Pos2DInt32(200, 100), null);
+        editor.activateView(1);
+        return editor;
+    }
+    
+    private static Integer dataAt(GridEditor<Integer> editor, int column, int row) {
+        CellModel<Integer> cell = editor.getCell(new Pos2DInt32(column, row));
+        return cell == null
+               ? null
+               : cell.getData();
+    }
+    
+    private List<String> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                        .filter(name -> name.endsWith(suffix))
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+    
+    @Test
+    public void replayRestoresCommittedChanges() throws Exception {
+        GridEditor<Integer>  editor  = newEditor();
+        GridJournal<Integer> journal = GridJournal.open(editor, directory, ValueCodecs.INTEGER, FACTORY);
+        assertSame(journal, editor.getJournal());
+        editor.setData(new Pos2DInt32(1, 2), 12);
+        editor.setData(new Pos2DInt32(3, 4), 34);
+        editor.setData(new Pos2DInt32(3, 4), null);
+        editor.setData(new Pos2DInt32(1, 2), 21);
+        journal.commit().get();
+        journal.close();
+        assertNull(editor.getJournal());
+        
+        GridEditor<Integer> restored = newEditor();
+        GridJournal.open(restored, directory, ValueCodecs.INTEGER, FACTORY).close();
+        assertEquals(Integer.valueOf(21), dataAt(restored, 1, 2));
+        assertNotNull(restored.getCell(new Pos2DInt32(3, 4)));
+        assertNull(dataAt(restored, 3, 4));
+    }
+    
+    @Test
+    public void tornRecordEndsReplay() throws Exception {
+        GridEditor<Integer>  editor  = newEditor();
+        GridJournal<Integer> journal = GridJournal.open(editor, directory, ValueCodecs.INTEGER, FACTORY);
+        for (int x = 0; x < 10; x++) {
+            editor.setData(new Pos2DInt32(x, 0), x);
+        }
+        journal.close();
+        
+        // Absturz mitten im letzten Datensatz
+        Path segment = directory.resolve(files(".log").get(0));
+        try (FileChannel channel = FileChannel.open(segment, WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        GridEditor<Integer> restored = newEditor();
+        GridJournal.open(restored, directory, ValueCodecs.INTEGER, FACTORY).close();
+        for (int x = 0; x < 9; x++) {
+            assertEquals(Integer.valueOf(x), dataAt(restored, x, 0));
+        }
+        assertNull(restored.getCell(new Pos2DInt32(9, 0)));
+    }
+    
+    @Test
+    public void corruptRecordEndsReplay() throws Exception {
+        GridEditor<Integer>  editor  = newEditor();
+        GridJournal<Integer> journal = GridJournal.open(editor, directory, ValueCodecs.INTEGER, FACTORY);
+        editor.setData(new Pos2DInt32(0, 0), 1);
+        editor.setData(new Pos2DInt32(1, 0), 2);
+        journal.close();
+        
+        Path   segment = directory.resolve(files(".log").get(0));
+        byte[] content = Files.readAllBytes(segment);
+        // letztes Byte des letzten Werts verfälschen, die Prüfsumme passt nicht mehr
+        content[content.length - 1] ^= 0x55;
+        Files.write(segment, content);
+        GridEditor<Integer> restored = newEditor();
+        GridJournal.open(restored, directory, ValueCodecs.INTEGER, FACTORY).close();
+        assertEquals(Integer.valueOf(1), dataAt(restored, 0, 0));
+        assertNull(restored.getCell(new Pos2DInt32(1, 0)));
+    }
+    
+    @Test
+    public void fullSegmentsRollOver() throws Exception {
+        GridEditor<Integer>  editor  = newEditor();
+        GridJournal<Integer> journal = GridJournal.open(editor, directory, ValueCodecs.INTEGER, FACTORY, 256, Integer.MAX_VALUE);
+        for (int x = 0; x < 200; x++) {
+            editor.setData(new Pos2DInt32(x, 1), x);
+            if(x % 20 == 0) {
+                journal.commit().get();
+            }
+        }
+        journal.close();
+        assertTrue(files(".log").size() > 1);
+        assertTrue(files(".grid").isEmpty());
+        
+        GridEditor<Integer> restored = newEditor();
+        GridJournal.open(restored, directory, ValueCodecs.INTEGER, FACTORY).close();
+        for (int x = 0; x < 200; x++) {
+            assertEquals(Integer.valueOf(x), dataAt(restored, x, 1));
+        }
+    }
+    
+    @Test
+    public void compactionReplacesOlderFiles() throws Exception {
+        GridEditor<Integer>  editor  = newEditor();
+        GridJournal<Integer> journal = GridJournal.open(editor, directory, ValueCodecs.INTEGER, FACTORY, 256, Integer.MAX_VALUE);
+        for (int x = 0; x < 100; x++) {
+            editor.setData(new Pos2DInt32(x, 0), x);
+        }
+        journal.commit().get();
+        journal.compact().get();
+        editor.setData(new Pos2DInt32(0, 0), -1);
+        journal.close();
+        
+        List<String> snapshots = files(".grid");
+        assertEquals(1, snapshots.size());
+        String first = snapshots.get(0).replace("snapshot-", "journal-").replace(".grid", ".log");
+        for (String segment : files(".log")) {
+            assertTrue(segment + " older than " + first, segment.compareTo(first) >= 0);
+        }
+        
+        GridEditor<Integer> restored = newEditor();
+        GridJournal.open(restored, directory, ValueCodecs.INTEGER, FACTORY).close();
+        assertEquals(100, restored.getCellCount());
+        assertEquals(Integer.valueOf(-1), dataAt(restored, 0, 0));
+        assertEquals(Integer.valueOf(99), dataAt(restored, 99, 0));
+    }
+    
+    @Test
+    public void commitCoversCellsAddedDuringCompaction() throws IOException, ExecutionException, InterruptedException {
+        GridEditor<Integer>  editor  = newEditor();
+        GridJournal<Integer> journal = GridJournal.open(editor, directory, ValueCodecs.INTEGER, FACTORY);
+        for (int row = 0; row < 100; row++) {
+            List<CellModel<Integer>> cells = new ArrayList<>();
+            for (int column = 0; column < 200; column++) {
+                cells.add(editor.createCell(new Pos2DInt32(column, row), row));
+            }
+            // jede Übernahme fordert eine Zusammenfassung an, meist läuft die vorige noch
+            editor.addCells(cells);
+        }
+        journal.commit().get();
+        
+        // Stand nach commit() ohne close() sichern, als wäre der Prozess danach abgestürzt
+        Path copy = Files.createTempDirectory("grid-journal-copy");
+        try {
+            for (String name : files("")) {
+                if(!name.endsWith(".tmp")) {
+                    Files.copy(directory.resolve(name), copy.resolve(name));
+                }
+            }
+            GridEditor<Integer> restored = newEditor();
+            GridJournal.open(restored, copy, ValueCodecs.INTEGER, FACTORY).close();
+            assertEquals(20_000, restored.getCellCount());
+            assertEquals(Integer.valueOf(99), dataAt(restored, 199, 99));
+        } finally {
+            journal.close();
+            try (Stream<Path> files = Files.list(copy)) {
+                for (Path file : files.collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(copy);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.dim2D.pos.Pos2DInt32;
+import mysamples.grid.v1.impl.Pos2DViewMapper;
+import mysamples.grid.v1.model.ValueCodecs;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.Assert.*;
+
+/**
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class GridSnapshotTest {
+    
+    private static final PositionFactory FACTORY = values -> new Pos2DInt32(values[0], values[1]);
+    
+    private GridEditor<Integer> editor;
+    private Path                file;
+    
+    @Before
+    public void setUp() throws IOException {
+        editor = new GridEditor<>(1, new Pos2DViewMapper(), new Pos2DInt32(30, 20), null);
+        editor.activateView(1);
+        for (int x = 0; x < 30; x++) {
+            editor.setData(new Pos2DInt32(x, x % 20), x % 4 == 0
+                                                      ? null
+                                                      : x * 10);
+        }
+        file = Files.createTempFile("grid", ".snapshot");
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+    
+    @Test
+    public void openReadsSingleCells() throws IOException {
+        GridSnapshot.write(editor, file, ValueCodecs.INTEGER);
+        GridSnapshot<Integer> snapshot = GridSnapshot.open(file, ValueCodecs.INTEGER, FACTORY);
+        
+        assertEquals(30, snapshot.getCellCount());
+        assertArrayEquals(new int[]{30, 20}, snapshot.getDimensions());
+        assertEquals(Integer.valueOf(70), snapshot.get(new Pos2DInt32(7, 7)));
+        assertNull(snapshot.get(new Pos2DInt32(8, 8)));
+        assertEquals(-1, snapshot.indexOf(new Pos2DInt32(8, 9)));
+    }
+    
+    @Test
+    public void restoreCopiesCellsAndViews() throws IOException {
+        GridSnapshot.write(editor, file, ValueCodecs.INTEGER);
+        GridEditor<Integer> restored = new GridEditor<>(2, new Pos2DViewMapper(), new Pos2DInt32(30, 20), null);
+        GridSnapshot.open(file, ValueCodecs.INTEGER, FACTORY).restore(restored);
+        
+        assertEquals(30, restored.getCellCount());
+        assertTrue(restored.getViews().containsKey(1));
+        for (int x = 0; x < 30; x++) {
+            Pos2DInt32 position = new Pos2DInt32(x, x % 20);
+            assertEquals(editor.getCell(position).getData(), restored.getCell(position).getData());
+        }
+    }
+    
+    @Test
+    public void truncatedFileIsRejected() throws IOException {
+        GridSnapshot.write(editor, file, ValueCodecs.INTEGER);
+        byte[] content = Files.readAllBytes(file);
+        for (int length : new int[]{0, 8, 20, content.length / 2, content.length - 1}) {
+            Files.write(file, Arrays.copyOf(content, length));
+            try {
+                GridSnapshot.open(file, ValueCodecs.INTEGER, FACTORY);
+                fail("Truncated snapshot of " + length + " bytes accepted");
+            } catch (IOException expected) {
+                // abgelehnt
+            }
+        }
+    }
+    
+    @Test
+    public void corruptHeaderSizeIsRejected() throws IOException {
+        GridSnapshot.write(editor, file, ValueCodecs.INTEGER);
+        for (int headerSize : new int[]{Integer.MAX_VALUE, -1, 4 * Integer.BYTES}) {
+            try (FileChannel channel = FileChannel.open(file, WRITE)) {
+                ByteBuffer value = ByteBuffer.allocate(Integer.BYTES);
+                value.putInt(0, headerSize);
+                // Kennung, Version, Kopfgröße
+                channel.write(value, 2 * Integer.BYTES);
+            }
+            try {
+                GridSnapshot.open(file, ValueCodecs.INTEGER, FACTORY);
+                fail("Header size " + headerSize + " accepted");
+            } catch (IOException expected) {
+                // abgelehnt
+            }
+        }
+    }
+}
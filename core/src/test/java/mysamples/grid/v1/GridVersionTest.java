@@ -0,0 +1,82 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.dim2D.pos.Pos2DInt32;
+import mysamples.grid.v1.impl.Pos2DViewMapper;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class GridVersionTest {
+    
+    private GridEditor<Integer> editor;
+    
+    @Before
+    public void setUp() {
+        editor = new GridEditor<>(1, new Pos2DViewMapper(), new Pos2DInt32(100, 50), null);
+        editor.activateView(1);
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void snapshotRequiresVersioning() {
+        editor.snapshot();
+    }
+    
+    @Test
+    public void versionIsNotChangedByLaterWrites() {
+        editor.setData(new Pos2DInt32(1, 1), 1);
+        editor.setVersioningEnabled(true);
+        editor.setData(new Pos2DInt32(2, 2), 2);
+        
+        GridVersion<Integer> first = editor.snapshot();
+        editor.setData(new Pos2DInt32(1, 1), 10);
+        editor.setData(new Pos2DInt32(3, 3), 3);
+        GridVersion<Integer> second = editor.snapshot();
+        
+        assertEquals(2, first.size());
+        assertEquals(Integer.valueOf(1), first.get(new Pos2DInt32(1, 1)));
+        assertFalse(first.contains(new Pos2DInt32(3, 3)));
+        assertEquals(3, second.size());
+        assertEquals(Integer.valueOf(10), second.get(new Pos2DInt32(1, 1)));
+        assertTrue(second.getVersion() > first.getVersion());
+    }
+    
+    @Test
+    public void iterationFollowsAddressOrder() {
+        editor.setVersioningEnabled(true);
+        editor.setData(new Pos2DInt32(5, 3), 1);
+        editor.setData(new Pos2DInt32(0, 0), 2);
+        editor.setData(new Pos2DInt32(99, 0), 3);
+        
+        int[] expected = {2, 3, 1};
+        int   i        = 0;
+        for (GridVersion.Entry<Integer> entry : editor.snapshot()) {
+            assertEquals(Integer.valueOf(expected[i++]), entry.getData());
+        }
+        assertEquals(3, i);
+    }
+    
+    @Test
+    public void snapshotDuringBuildIsComplete() throws InterruptedException {
+        for (int y = 0; y < 50; y++) {
+            for (int x = 0; x < 100; x++) {
+                editor.setData(new Pos2DInt32(x, y), x);
+            }
+        }
+        Thread builder = new Thread(() -> editor.setVersioningEnabled(true));
+        builder.start();
+        GridVersion<Integer> version = null;
+        while (version == null) {
+            try {
+                version = editor.snapshot();
+            } catch (IllegalStateException e) {
+                Thread.yield();
+            }
+        }
+        builder.join();
+        assertEquals(5000, version.size());
+    }
+}
@@ -0,0 +1,143 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.UDim;
+import mysamples.grid.v1.impl.SliceViewMapper;
+import mysamples.grid.v1.model.Aggregators;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.*;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Ebenen der Ansichten eines 3D-Grids: ohne Schnitt-Angabe liegen nur die Zellen, die der Mapper
+ * abbildet, auf der Ebene der Ansicht, mit Schnitt-Angabe die Zellen des aktuellen Schnitts.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class GridViewPlaneTest {
+    
+    private static final int VIEW_ID = 1;
+    
+    private GridEditor<Integer> editor;
+    
+    @Before
+    public void setUp() {
+        UDim            dimensions = new PosInt32(6, 4, 3);
+        SliceViewMapper slice      = new SliceViewMapper(dimensions, 0, 1, PosInt32::new);
+        editor = new GridEditor<>(VIEW_ID, new ProjectedMapper(slice), dimensions, null);
+        editor.activateView(VIEW_ID);
+    }
+    
+    @Test
+    public void aggregatesCountOnlyCellsOfThePlane() {
+        CellAggregate<Integer, Double> sums = editor.addAggregate(CellAggregate.Orientation.ROW, Aggregators.sum(Integer::doubleValue));
+        for (int z = 0; z < 3; z++) {
+            editor.setData(new PosInt32(1, 2, z), 10 + z);
+        }
+        assertEquals(Double.valueOf(10), sums.get(2));
+        
+        editor.setData(new PosInt32(1, 2, 2), 5);
+        editor.setData(new PosInt32(1, 2, 0), 1);
+        assertEquals(Double.valueOf(1), sums.get(2));
+        
+        CellAggregate<Integer, Integer> counts = editor.addAggregate(CellAggregate.Orientation.COLUMN, Aggregators.count());
+        assertEquals(Integer.valueOf(1), counts.get(1));
+    }
+    
+    @Test
+    public void regionIgnoresCellsOfOtherPlanes() {
+        editor.setData(new PosInt32(3, 1, 0), 7);
+        assertEquals(1, editor.findInRegion(new Rectangle(0, 0, 6, 4)).size());
+        
+        editor.setData(new PosInt32(3, 1, 1), 8);
+        editor.setData(new PosInt32(3, 1, 1), null);
+        assertEquals(1, editor.findInRegion(new Rectangle(0, 0, 6, 4)).size());
+        assertEquals(new Point(3, 1), editor.nextNonEmpty(-1, 1));
+    }
+    
+    @Test
+    public void movedSliceRebuildsAggregatesFromTheNewPlane() {
+        UDim                dimensions = new PosInt32(6, 4, 3);
+        SliceViewMapper     slice      = new SliceViewMapper(dimensions, 0, 1, PosInt32::new);
+        GridEditor<Integer> sliced     = new GridEditor<>(VIEW_ID, slice, dimensions, null);
+        sliced.activateView(VIEW_ID);
+        for (int x = 0; x < 6; x++) {
+            sliced.setData(new PosInt32(x, 3, 0), 1);
+            sliced.setData(new PosInt32(x, 3, 1), 2);
+        }
+        CellAggregate<Integer, Double> sums = sliced.addAggregate(CellAggregate.Orientation.ROW, Aggregators.sum(Integer::doubleValue));
+        assertEquals(Double.valueOf(6), sums.get(3));
+        
+        sliced.setSliceIndex(2, 1);
+        assertEquals(Double.valueOf(12), sums.get(3));
+        assertEquals(Integer.valueOf(2), sliced.getViewCell(5, 3).getData());
+        
+        sliced.setData(new PosInt32(0, 3, 0), 10);
+        sliced.setData(new PosInt32(0, 3, 1), 10);
+        assertEquals(Double.valueOf(20), sums.get(3));
+        assertEquals(new Point(0, 3), sliced.nextNonEmpty(-1, 3));
+    }
+    
+    /**
+     * Positionen der Ebene {@code z = 0} eines 3D-Grids.
+     */
+    private static final class ProjectedMapper implements PositionViewMapper {
+        
+        private final SliceViewMapper slice;
+        
+        private ProjectedMapper(SliceViewMapper slice) {
+            this.slice = slice;
+        }
+        
+        @Override
+        public UDim convert(int x, int y) {
+            return slice.convert(x, y);
+        }
+        
+        @Override
+        public int getHorizontalAxisIndex() {
+            return slice.getHorizontalAxisIndex();
+        }
+        
+        @Override
+        public int getVerticalAxisIndex() {
+            return slice.getVerticalAxisIndex();
+        }
+    }
+    
+    private static final class PosInt32 implements UDim {
+        
+        private final int[] values;
+        
+        private PosInt32(int... values) {
+            this.values = values.clone();
+        }
+        
+        @Override
+        public int getV(int i) {
+            return values[i];
+        }
+        
+        @Override
+        public int getDimensions() {
+            return values.length;
+        }
+        
+        @Override
+        public void consumed() {
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof PosInt32 && Arrays.equals(values, ((PosInt32) obj).values);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package mysamples.grid.v1;
+
+import mysamples.common.EventHandler;
+import mysamples.grid.v1.model.Aggregator;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Supplier;
+
+/**
+ * Eine Kennzahl je Zeile bzw. Spalte der aktiven Ansicht, registriert über
+ * {@link GridEditor#addAggregate(Orientation, Supplier)}. Der {@link GridEditor} schreibt jede
+ * Datenänderung einer Zelle in den {@link Aggregator} ihrer Zeile bzw. Spalte fort, geänderte
+ * Ergebnisse werden an die Listener gemeldet (im schreibenden Thread).
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class CellAggregate<T, R> {
+    
+    private final Orientation                                                  orientation;
+    private final Supplier<? extends Aggregator<T, R>>                         factory;
+    private final R                                                            emptyResult;
+    private final Collection<EventHandler<CellAggregate<T, R>, ChangeArgs<R>>> listeners;
+    private       Aggregator<T, R>[]                                           lines;
+    // Aufbau: Generation und Adresse, bis zu der die Zellen bereits übernommen sind
+    private       int                                                          generation;
+    private       long                                                         filled;
+    
+    public CellAggregate(Orientation orientation, Supplier<? extends Aggregator<T, R>> factory) {
+        this.orientation = orientation;
+        this.factory = factory;
+        this.emptyResult = factory.get().getResult();
+        this.listeners = new CopyOnWriteArraySet<>();
+        reset(0);
+    }
+    
+    public Orientation getOrientation() {
+        return orientation;
+    }
+    
+    /**
+     * @return das Ergebnis der Zeile bzw. Spalte, für Zeilen ohne Daten das Ergebnis eines leeren {@link Aggregator}
+     */
+    public synchronized R get(int line) {
+        Aggregator<T, R> aggregator = line >= 0 && line < lines.length
+                                      ? lines[line]
+                                      : null;
+        return aggregator == null
+               ? emptyResult
+               : aggregator.getResult();
+    }
+    
+    public synchronized int getLineCount() {
+        return lines.length;
+    }
+    
+    public void addChangeListener(EventHandler<CellAggregate<T, R>, ChangeArgs<R>> listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeChangeListener(EventHandler<CellAggregate<T, R>, ChangeArgs<R>> listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Verwirft alle Ergebnisse, z.B. beim Wechsel der Ansicht, und beginnt einen neuen Aufbau.
+     * Bis zum Aufbau einer Zelle werden ihre Änderungen nicht fortgeschrieben, der Aufbau
+     * übernimmt ihren dann aktuellen Wert.
+     *
+     * @return die Generation des Aufbaus, ein früherer Aufbau wird damit wirkungslos
+     */
+    synchronized int reset(int lineCount) {
+        //noinspection unchecked
+        lines = new Aggregator[lineCount];
+        filled = 0;
+        return ++generation;
+    }
+    
+    /**
+     * Fügt einen Wert ohne Meldung hinzu (Aufbau nach {@link #reset(int)}).
+     */
+    synchronized void add(int generation, int line, T value) {
+        if(this.generation == generation && value != null && line >= 0 && line < lines.length) {
+            aggregator(line).add(value);
+        }
+    }
+    
+    /**
+     * Schließt den Aufbau aller Zellen unterhalb der Adresse ab, ab jetzt werden deren
+     * Änderungen über {@link #update(long, int, Object, Object)} fortgeschrieben. Der Aufrufer
+     * hält dabei die Kachelsperre der aufgebauten Zellen.
+     */
+    synchronized void setFilled(int generation, long address) {
+        if(this.generation == generation) {
+            filled = address;
+        }
+    }
+    
+    /**
+     * Meldet den Abschluss eines Aufbaus an die Listener.
+     */
+    void notifyReinit() {
+        fire(new ChangeArgs<>(true, -1, null, null));
+    }
+    
+    /**
+     * Ersetzt den alten Wert der Zeile bzw. Spalte durch den neuen, in O(1) bzw. O(log n) je
+     * nach {@link Aggregator}. Zellen, die der laufende Aufbau noch nicht erreicht hat, werden
+     * übergangen.
+     *
+     * @param address Adresse der Zelle im {@link TiledCellStore}
+     */
+    void update(long address, int line, T oldValue, T newValue) {
+        R oldResult;
+        R newResult;
+        synchronized (this) {
+            if(address >= filled || line < 0 || line >= lines.length || Objects.equals(oldValue, newValue)) {
+                return;
+            }
+            Aggregator<T, R> aggregator = aggregator(line);
+            oldResult = aggregator.getResult();
+            if(oldValue != null) {
+                aggregator.remove(oldValue);
+            }
+            if(newValue != null) {
+                aggregator.add(newValue);
+            }
+            newResult = aggregator.getResult();
+        }
+        if(!Objects.equals(oldResult, newResult)) {
+            fire(new ChangeArgs<>(false, line, oldResult, newResult));
+        }
+    }
+    
+    private Aggregator<T, R> aggregator(int line) {
+        Aggregator<T, R> aggregator = lines[line];
+        if(aggregator == null) {
+            lines[line] = aggregator = factory.get();
+        }
+        return aggregator;
+    }
+    
+    private void fire(ChangeArgs<R> args) {
+        for (EventHandler<CellAggregate<T, R>, ChangeArgs<R>> listener : listeners) {
+            listener.onCallback(this, args);
+        }
+    }
+    
+    public enum Orientation {
+        ROW,
+        COLUMN
+    }
+    
+    public static final class ChangeArgs<R> {
+        
+        private final boolean reinit;
+        private final int     line;
+        private final R       oldResult;
+        private final R       newResult;
+        
+        private ChangeArgs(boolean reinit, int line, R oldResult, R newResult) {
+            this.reinit = reinit;
+            this.line = line;
+            this.oldResult = oldResult;
+            this.newResult = newResult;
+        }
+        
+        /**
+         * @return {@code true}, wenn alle Ergebnisse neu aufgebaut wurden (z.B. nach Wechsel der Ansicht)
+         */
+        public boolean isReinit() {
+            return reinit;
+        }
+        
+        /**
+         * @return Zeile bzw. Spalte oder {@code -1} bei {@link #isReinit()}
+         */
+        public int getLine() {
+            return line;
+        }
+        
+        public R getOldResult() {
+            return oldResult;
+        }
+        
+        public R getNewResult() {
+            return newResult;
+        }
+    }
+}
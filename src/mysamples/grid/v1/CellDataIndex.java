@@ -0,0 +1,121 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.UDim;
+import mysamples.grid.v1.model.HashEqual;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Umgekehrter Index vom Datenwert auf die Positionen der Zellen, die diesen Wert halten.
+ * Gleichheit und Hash richten sich nach dem konfigurierten {@link HashEqual}, ohne Angabe gelten
+ * {@code equals}/{@code hashCode}.
+ * {@code null}-Werte werden nicht indiziert.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class CellDataIndex<T> {
+    
+    private final    HashEqual<T>                         indicator;
+    private final    ConcurrentHashMap<Key<T>, Set<UDim>> positionsByData;
+    private volatile boolean                              complete;
+    
+    public CellDataIndex(HashEqual<T> indicator) {
+        this.indicator = indicator;
+        this.positionsByData = new ConcurrentHashMap<>();
+    }
+    
+    public void update(UDim position, T oldData, T newData) {
+        if(oldData == newData) {
+            return;
+        }
+        remove(position, oldData);
+        add(position, newData);
+    }
+    
+    public void add(UDim position, T data) {
+        if(data != null) {
+            positionsByData.compute(new Key<>(data, indicator), (key, positions) -> {
+                if(positions == null) {
+                    positions = ConcurrentHashMap.newKeySet();
+                }
+                positions.add(position);
+                return positions;
+            });
+        }
+    }
+    
+    public void remove(UDim position, T data) {
+        if(data != null) {
+            positionsByData.computeIfPresent(new Key<>(data, indicator), (key, positions) -> {
+                positions.remove(position);
+                return positions.isEmpty()
+                       ? null
+                       : positions;
+            });
+        }
+    }
+    
+    /**
+     * @return die Positionen aller Zellen mit gleichem Wert, nie {@code null}
+     */
+    public Set<UDim> get(T data) {
+        if(data == null) {
+            return Collections.emptySet();
+        }
+        Set<UDim> positions = positionsByData.get(new Key<>(data, indicator));
+        return positions == null
+               ? Collections.emptySet()
+               : Collections.unmodifiableSet(positions);
+    }
+    
+    public void clear() {
+        positionsByData.clear();
+    }
+    
+    /**
+     * @return {@code false}, solange der Index noch aus den vorhandenen Zellen aufgebaut wird
+     *         oder ein Import ihn nicht fortschreibt
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+    
+    void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+    
+    private static final class Key<T> {
+        
+        private final T            data;
+        private final HashEqual<T> indicator;
+        private final int          hash;
+        
+        private Key(T data, HashEqual<T> indicator) {
+            this.data = data;
+            this.indicator = indicator;
+            this.hash = indicator == null
+                        ? data.hashCode()
+                        : indicator.hashOf(data);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof Key)) {
+                return false;
+            }
+            //noinspection unchecked
+            T other = ((Key<T>) obj).data;
+            return indicator == null
+                   ? Objects.equals(data, other)
+                   : indicator.isEqual(data, other);
+        }
+    }
+}
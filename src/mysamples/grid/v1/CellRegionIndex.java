@@ -0,0 +1,211 @@
+package mysamples.grid.v1;
+
+import java.awt.*;
+
+/**
+ * Belegungs-Bitmap der Zellen einer Ansicht nach Spalte und Zeile. Je belegter Zeile wird ein
+ * Bitfeld der Spalten gehalten, zusätzlich ein Bitfeld der belegten Zeilen. Bereichsabfragen
+ * überspringen so leere Zeilen und je 64 leere Spalten auf einmal, ihr Aufwand richtet sich
+ * nach der Trefferzahl statt nach der Größe des Grids.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class CellRegionIndex {
+    
+    private final int      columnCount;
+    private final int      rowCount;
+    private final long[][] rows;
+    private final int[]    rowCounts;
+    private final long[]   nonEmptyRows;
+    private       int      size;
+    
+    public CellRegionIndex(int columnCount, int rowCount) {
+        this.columnCount = columnCount;
+        this.rowCount = rowCount;
+        this.rows = new long[rowCount][];
+        this.rowCounts = new int[rowCount];
+        this.nonEmptyRows = new long[words(rowCount)];
+    }
+    
+    /**
+     * @return {@code true}, wenn die Stelle zuvor nicht belegt war
+     */
+    public synchronized boolean add(int column, int row) {
+        if(!isInside(column, row)) {
+            return false;
+        }
+        long[] words = rows[row];
+        if(words == null) {
+            rows[row] = words = new long[words(columnCount)];
+        }
+        int  w   = column >>> 6;
+        long bit = 1L << column;
+        if((words[w] & bit) != 0) {
+            return false;
+        }
+        words[w] |= bit;
+        if(rowCounts[row]++ == 0) {
+            nonEmptyRows[row >>> 6] |= 1L << row;
+        }
+        size++;
+        return true;
+    }
+    
+    /**
+     * @return {@code true}, wenn die Stelle belegt war
+     */
+    public synchronized boolean remove(int column, int row) {
+        if(!contains(column, row)) {
+            return false;
+        }
+        rows[row][column >>> 6] &= ~(1L << column);
+        if(--rowCounts[row] == 0) {
+            // leere Zeilen geben ihr Bitfeld frei
+            rows[row] = null;
+            nonEmptyRows[row >>> 6] &= ~(1L << row);
+        }
+        size--;
+        return true;
+    }
+    
+    public synchronized boolean contains(int column, int row) {
+        if(!isInside(column, row)) {
+            return false;
+        }
+        long[] words = rows[row];
+        return words != null && (words[column >>> 6] & (1L << column)) != 0;
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    /**
+     * Besucht alle belegten Stellen im Bereich zeilenweise von links nach rechts.
+     */
+    public synchronized void forEach(Rectangle region, Visitor visitor) {
+        int firstColumn = Math.max(0, region.x);
+        int lastColumn  = Math.min(columnCount - 1, region.x + region.width - 1);
+        int firstRow    = Math.max(0, region.y);
+        int lastRow     = Math.min(rowCount - 1, region.y + region.height - 1);
+        if(firstColumn > lastColumn) {
+            return;
+        }
+        for (int row = nextSetBit(nonEmptyRows, firstRow, lastRow); row >= 0; row = nextSetBit(nonEmptyRows, row + 1, lastRow)) {
+            long[] words = rows[row];
+            for (int column = nextSetBit(words, firstColumn, lastColumn); column >= 0; column = nextSetBit(words, column + 1, lastColumn)) {
+                visitor.visit(column, row);
+            }
+        }
+    }
+    
+    /**
+     * Liefert die nächste belegte Stelle nach der angegebenen in Lese-Reihenfolge (erst Spalten,
+     * dann Zeilen). Mit Spalte {@code -1} wird die Zeile selbst ab ihrem Anfang durchsucht.
+     *
+     * @return die Stelle oder {@code null}
+     */
+    public synchronized Point next(int column, int row) {
+        if(row < 0) {
+            row = 0;
+            column = -1;
+        }
+        if(row >= rowCount) {
+            return null;
+        }
+        if(rows[row] != null) {
+            int found = nextSetBit(rows[row], Math.max(0, column + 1), columnCount - 1);
+            if(found >= 0) {
+                return new Point(found, row);
+            }
+        }
+        int nextRow = nextSetBit(nonEmptyRows, row + 1, rowCount - 1);
+        return nextRow < 0
+               ? null
+               : new Point(nextSetBit(rows[nextRow], 0, columnCount - 1), nextRow);
+    }
+    
+    /**
+     * Liefert die vorherige belegte Stelle vor der angegebenen in Lese-Reihenfolge.
+     *
+     * @return die Stelle oder {@code null}
+     */
+    public synchronized Point previous(int column, int row) {
+        if(row >= rowCount) {
+            row = rowCount - 1;
+            column = columnCount;
+        }
+        if(row < 0) {
+            return null;
+        }
+        if(rows[row] != null && column > 0) {
+            int found = previousSetBit(rows[row], Math.min(column - 1, columnCount - 1));
+            if(found >= 0) {
+                return new Point(found, row);
+            }
+        }
+        int previousRow = previousSetBit(nonEmptyRows, row - 1);
+        return previousRow < 0
+               ? null
+               : new Point(previousSetBit(rows[previousRow], columnCount - 1), previousRow);
+    }
+    
+    private boolean isInside(int column, int row) {
+        return column >= 0 && row >= 0 && column < columnCount && row < rowCount;
+    }
+    
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+    
+    /**
+     * @return das erste gesetzte Bit in {@code [from, to]} oder {@code -1}
+     */
+    private static int nextSetBit(long[] words, int from, int to) {
+        if(from > to) {
+            return -1;
+        }
+        int w = from >>> 6;
+        if(w >= words.length) {
+            return -1;
+        }
+        long word = words[w] & (-1L << from);
+        while (true) {
+            if(word != 0) {
+                int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+                return bit <= to
+                       ? bit
+                       : -1;
+            }
+            if(++w >= words.length || (w << 6) > to) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+    
+    /**
+     * @return das letzte gesetzte Bit in {@code [0, from]} oder {@code -1}
+     */
+    private static int previousSetBit(long[] words, int from) {
+        if(from < 0) {
+            return -1;
+        }
+        int  w    = from >>> 6;
+        long word = words[w] & (-1L >>> (63 - (from & 63)));
+        while (true) {
+            if(word != 0) {
+                return (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+            if(--w < 0) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+    
+    public interface Visitor {
+        
+        void visit(int column, int row);
+    }
+}
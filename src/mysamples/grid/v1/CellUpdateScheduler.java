@@ -0,0 +1,111 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.UDim;
+
+import javax.swing.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Nimmt Datenänderungen von beliebigen Threads entgegen und wendet sie gebündelt im
+ * Event-Dispatch-Thread auf den {@link GridEditor} an. Je Zelle wird nur der zuletzt
+ * übermittelte Wert behalten, angewendet wird höchstens einmal je Frame, so dass die
+ * Last im EDT unabhängig von der Update-Rate der Datenquellen begrenzt bleibt.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class CellUpdateScheduler<T> {
+    
+    public static final  int    DEFAULT_FRAMES_PER_SECOND = 30;
+    private static final Object NULL                      = new Object();
+    
+    private final    GridEditor<T>                   gridEditor;
+    private final    ConcurrentHashMap<UDim, Object> pending;
+    private final    AtomicBoolean                   scheduled;
+    private final    Timer                           timer;
+    private volatile int                             frameInterval;
+    private          long                            lastFlush;
+    
+    public CellUpdateScheduler(GridEditor<T> gridEditor) {
+        this(gridEditor, DEFAULT_FRAMES_PER_SECOND);
+    }
+    
+    public CellUpdateScheduler(GridEditor<T> gridEditor, int framesPerSecond) {
+        this.gridEditor = gridEditor;
+        this.pending = new ConcurrentHashMap<>();
+        this.scheduled = new AtomicBoolean();
+        this.timer = new Timer(0, e -> flush());
+        this.timer.setRepeats(false);
+        setFramesPerSecond(framesPerSecond);
+    }
+    
+    public void setFramesPerSecond(int framesPerSecond) {
+        if(framesPerSecond <= 0) {
+            throw new IllegalArgumentException("Frames per second must be positive: " + framesPerSecond);
+        }
+        frameInterval = Math.max(1, 1000 / framesPerSecond);
+    }
+    
+    public int getFramesPerSecond() {
+        return 1000 / frameInterval;
+    }
+    
+    /**
+     * Übernimmt den Wert für die Zelle. Darf von jedem Thread aufgerufen werden, ein noch nicht
+     * angewendeter Wert derselben Zelle wird ersetzt.
+     */
+    public void submit(UDim position, T data) {
+        pending.put(position, data == null
+                              ? NULL
+                              : data);
+        if(scheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::arm);
+        }
+    }
+    
+    public int getPendingCount() {
+        return pending.size();
+    }
+    
+    /**
+     * Wendet alle ausstehenden Werte sofort an. Muss im EDT aufgerufen werden.
+     */
+    public void flush() {
+        lastFlush = System.currentTimeMillis();
+        // vor dem Abarbeiten zurücksetzen, damit währenddessen eintreffende Werte neu einplanen
+        scheduled.set(false);
+        if(pending.isEmpty()) {
+            return;
+        }
+        gridEditor.edit(editor -> {
+            for (Map.Entry<UDim, Object> entry : pending.entrySet()) {
+                UDim   position = entry.getKey();
+                Object value    = entry.getValue();
+                // nur entfernen, wenn der Wert nicht zwischenzeitlich ersetzt wurde
+                if(pending.remove(position, value)) {
+                    //noinspection unchecked
+                    editor.setData(position, value == NULL
+                                             ? null
+                                             : (T) value);
+                }
+            }
+        });
+    }
+    
+    public void dispose() {
+        timer.stop();
+        pending.clear();
+        scheduled.set(false);
+    }
+    
+    private void arm() {
+        long wait = lastFlush + frameInterval - System.currentTimeMillis();
+        if(wait <= 0) {
+            flush();
+        } else {
+            timer.setInitialDelay((int) wait);
+            timer.restart();
+        }
+    }
+}
@@ -4,7 +4,6 @@ import mysamples.common.udim.UDim;
 import mysamples.grid.v1.model.CellModel;
 
 import javax.swing.*;
-import java.util.List;
 import java.util.function.Function;
 
 /**
@@ -12,28 +11,60 @@ import java.util.function.Function;
  */
 public class CellView<T> extends JPanel {
     
-    private final UDim                                       coordinate;
+    private       UDim                                       coordinate;
     private final PositionViewMapper                         mapper;
     private final Function<CellView<T>, Action<CellView<T>>> rendering;
     private       T                                          data;
     private       CellModel<T>                               model;
-    private final int                                        index;
+    private       int                                        index;
+    private       int                                        column;
+    private       int                                        row;
     
     public CellView(UDim coordinate, PositionViewMapper mapper, Function<CellView<T>, Action<CellView<T>>> rendering, int index) {
         this.coordinate = coordinate;
         this.mapper = mapper;
         this.rendering = rendering;
         this.index = index;
+        if(coordinate != null) {
+            this.column = coordinate.getV(mapper.getHorizontalAxisIndex());
+            this.row = coordinate.getV(mapper.getVerticalAxisIndex());
+        }
     }
     
-    void setDataModel(GridEditor<T> sender, List<CellModel<T>> result) {
-        if(result.size() == 1) {
-            model = result.get(0);
-            setData(model.getData());
-        } else {
-            model = null;
-            setData(null);
+    /**
+     * Bindet eine recycelte Zelle an Spalte und Zeile der Ansicht. Die Koordinate wird erst
+     * bei Bedarf bestimmt ({@link #getCoordinate()}).
+     */
+    void bind(int column, int row, int index) {
+        this.coordinate = null;
+        this.column = column;
+        this.row = row;
+        this.index = index;
+        this.model = null;
+    }
+    
+    public UDim getCoordinate() {
+        if(coordinate == null) {
+            coordinate = model != null
+                         ? model.getPosition()
+                         : mapper.convert(column, row);
         }
+        return coordinate;
+    }
+    
+    public int getColumn() {
+        return column;
+    }
+    
+    public int getRow() {
+        return row;
+    }
+    
+    void setDataModel(GridEditor<T> sender, CellModel<T> model) {
+        this.model = model;
+        setData(model == null
+                ? null
+                : model.getData());
     }
     
     public CellModel<T> getModel() {
@@ -1,19 +1,29 @@
 package mysamples.grid.v1;
 
+import mysamples.common.EventHandler;
+
 import javax.swing.*;
 
 /**
+ * Kopf ({@link HeaderType#FIRST}) bzw. Fuß ({@link HeaderType#LAST}) einer Spalte. Mit
+ * {@link #setAggregate(CellAggregate)} zeigt der Fuß das Ergebnis der Spalte, der Kopf
+ * hängt es an den Spaltennamen an.
+ *
  * @author Bjoern Frohberg, mydata GmbH
  */
 public class ColumnHeaderView extends JLabel {
     
-    private final int column;
-    private final HeaderType type;
+    private final int                 column;
+    private final HeaderType          type;
+    private final Object              columnName;
+    private       CellAggregate<?, ?> aggregate;
+    private       Runnable            unbindAggregate;
     
     public ColumnHeaderView(int column, HeaderType type, Object columnName) {
         super(columnName.toString());
         this.column = column;
         this.type = type;
+        this.columnName = columnName;
     }
     
     public HeaderType getType() {
@@ -24,6 +34,41 @@ public class ColumnHeaderView extends JLabel {
         return column;
     }
     
+    /**
+     * Bindet die Kennzahl einer Spalte ({@link CellAggregate.Orientation#COLUMN}), {@code null} löst die Bindung.
+     */
+    public <T, R> void setAggregate(CellAggregate<T, R> aggregate) {
+        if(unbindAggregate != null) {
+            unbindAggregate.run();
+            unbindAggregate = null;
+        }
+        this.aggregate = aggregate;
+        if(aggregate != null) {
+            EventHandler<CellAggregate<T, R>, CellAggregate.ChangeArgs<R>> listener = (sender, e) -> onAggregateChanged(e);
+            aggregate.addChangeListener(listener);
+            unbindAggregate = () -> aggregate.removeChangeListener(listener);
+        }
+        updateText();
+    }
+    
+    private void onAggregateChanged(CellAggregate.ChangeArgs<?> e) {
+        if(e.isReinit() || e.getLine() == column) {
+            // Kennzahlen werden im schreibenden Thread fortgeschrieben
+            SwingUtilities.invokeLater(this::updateText);
+        }
+    }
+    
+    private void updateText() {
+        CellAggregate<?, ?> aggregate = this.aggregate;
+        if(aggregate == null) {
+            setText(columnName.toString());
+        } else if(type == HeaderType.LAST) {
+            setText(String.valueOf(aggregate.get(column)));
+        } else {
+            setText(columnName + " (" + aggregate.get(column) + ")");
+        }
+    }
+    
     public enum HeaderType {
         FIRST,
         LAST;
@@ -0,0 +1,157 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.UDim;
+import mysamples.grid.v1.model.CellModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Import großer Datenmengen, geöffnet über {@link GridEditor#openBulkLoader(int)}. Zellen werden
+ * im aufrufenden Thread erzeugt, zu Blöcken von {@link #CHUNK_SIZE} Zellen gesammelt und über eine
+ * begrenzte Warteschlange an einen Schreib-Thread übergeben, der sie direkt in den Zellspeicher
+ * schreibt. Ist die Warteschlange voll, blockiert {@link #put(UDim, Object)}, bis der Schreib-Thread
+ * aufgeholt hat; der Speicherbedarf bleibt so auf die Kapazität begrenzt. Erst {@link #close()}
+ * meldet den Import als Ganzes.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class GridBulkLoader<T> implements AutoCloseable {
+    
+    public static final int DEFAULT_CAPACITY = 16_384;
+    public static final int CHUNK_SIZE       = 4_096;
+    
+    private final    GridEditor<T>                     editor;
+    private final    BlockingQueue<List<CellModel<T>>> queue;
+    private final    List<CellModel<T>>                end;
+    private final    Thread                            writer;
+    private final    AtomicLong                        written;
+    private volatile Throwable                         failure;
+    private          List<CellModel<T>>                pending;
+    private          boolean                           closed;
+    
+    /**
+     * @param capacity Anzahl Zellen, die höchstens auf das Schreiben warten (mindestens ein Block)
+     */
+    GridBulkLoader(GridEditor<T> editor, int capacity) {
+        this.editor = editor;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity / CHUNK_SIZE));
+        // Endmarke, wird über die Identität erkannt
+        this.end = new ArrayList<>(0);
+        this.pending = new ArrayList<>(CHUNK_SIZE);
+        this.written = new AtomicLong();
+        this.writer = new Thread(this::write, "GridEditor-BulkLoader");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+    
+    /**
+     * Übergibt eine Zelle an den Schreib-Thread und blockiert, solange die Warteschlange voll ist.
+     */
+    public synchronized void put(UDim position, T data) throws InterruptedException {
+        if(closed) {
+            throw new IllegalStateException("Bulk loader already closed!");
+        }
+        if(failure != null) {
+            throw new IllegalStateException("Bulk load failed!", failure);
+        }
+        pending.add(editor.createCell(position, data));
+        if(pending.size() == CHUNK_SIZE) {
+            queue.put(pending);
+            pending = new ArrayList<>(CHUNK_SIZE);
+        }
+    }
+    
+    /**
+     * Liest die Zeilen nacheinander, z.B. aus {@code BufferedReader.lines().iterator()}, und
+     * übergibt die Zellen jeder Zeile über den {@link RowReader}.
+     */
+    public synchronized <R> void load(Iterator<? extends R> rows, RowReader<? super R, T> reader) throws InterruptedException {
+        while (rows.hasNext()) {
+            reader.read(rows.next(), this);
+        }
+    }
+    
+    /**
+     * @return Anzahl bereits in den Zellspeicher geschriebener Zellen
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+    
+    /**
+     * Wartet, bis alle übergebenen Zellen geschrieben sind, und schließt den Import ab.
+     *
+     * @throws IllegalStateException falls das Schreiben fehlgeschlagen ist
+     */
+    @Override
+    public synchronized void close() {
+        if(closed) {
+            return;
+        }
+        closed = true;
+        boolean interrupted = false;
+        for (List<CellModel<T>> last : pending.isEmpty()
+                                       ? Collections.singletonList(end)
+                                       : Arrays.asList(pending, end)) {
+            while (true) {
+                try {
+                    queue.put(last);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        pending = null;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        editor.finishBulkLoad();
+        if(interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if(failure != null) {
+            throw new IllegalStateException("Bulk load failed!", failure);
+        }
+    }
+    
+    private void write() {
+        while (true) {
+            List<CellModel<T>> chunk;
+            try {
+                chunk = queue.take();
+            } catch (InterruptedException e) {
+                failure = e;
+                continue;
+            }
+            if(chunk == end) {
+                return;
+            }
+            // nach einem Fehler weiter leeren, damit der Produzent nicht dauerhaft blockiert
+            if(failure == null) {
+                try {
+                    editor.storeBulk(chunk);
+                    written.addAndGet(chunk.size());
+                } catch (Throwable e) {
+                    failure = e;
+                }
+            }
+        }
+    }
+    
+    public interface RowReader<R, T> {
+        
+        void read(R row, GridBulkLoader<T> loader) throws InterruptedException;
+    }
+}
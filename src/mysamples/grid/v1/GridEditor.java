@@ -1,19 +1,32 @@
 package mysamples.grid.v1;
 
-import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
-import javafx.collections.FXCollections;
-import javafx.collections.ListChangeListener;
-import javafx.collections.ObservableList;
 import mysamples.common.EventHandler;
 import mysamples.common.udim.UDim;
+import mysamples.grid.v1.impl.SliceViewMapper;
+import mysamples.grid.v1.model.CellDataListener;
+import mysamples.grid.v1.model.Aggregator;
+import mysamples.grid.v1.model.Aggregators;
 import mysamples.grid.v1.model.CellModel;
 import mysamples.grid.v1.model.Equal;
+import mysamples.grid.v1.model.HashEqual;
 import mysamples.search.CollectionSearchEngine;
 
 import java.awt.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -25,48 +38,85 @@ import java.util.stream.Collectors;
  * Zellen.
  * Egal wieviele Dimensionen (mind. 2) eine Koordinate hat, per PositionMapping
  * kann zwischen verschiedenen 2-dimensionalen Ansichten gewechselt werden, was
- * ebenfalls zu einer Aktualisierung führt.
+ * ebenfalls zu einer Aktualisierung führt. Die berechneten Ansichten werden je View-ID
+ * zwischengespeichert ({@link #getProjectionCache()}), so dass ein erneuter Wechsel auf eine
+ * bereits genutzte Ansicht ohne Neuberechnung erfolgt. Für reine Schnitt-Ansichten
+ * ({@link PositionViewMapper#getSliceIndices()}, z.B. {@link SliceViewMapper}) werden die Zellen
+ * per Schrittweiten über den {@link TiledCellStore} adressiert ({@link #getViewCell(int, int)}),
+ * ohne je Zelle eine Koordinate zu erzeugen.
  * Es sei erwähnt, dass mit Aktualisierung lediglich das Triggern des UpdateEvents
  * gemeint ist.
+ * Zellen werden erst erzeugt, wenn sie Daten erhalten oder beobachtet werden
+ * ({@link #setData(UDim, Object)}, {@link #getOrCreateCell(UDim)}) und in einem
+ * {@link TiledCellStore} abgelegt.
+ * Massenänderungen können per {@link #edit(Consumer)} bzw. {@link #beginUpdate()} und
+ * {@link #endUpdate()} gebündelt werden, die geänderten Positionen werden dann einmalig
+ * mit einem gemeinsamen {@link UpdateCellArgs} gemeldet. Eine Bündelung gilt nur für den Thread,
+ * der sie begonnen hat. Außerhalb einer Bündelung wird jede Datenänderung einzeln als
+ * {@link ChangeCellArgs} mit altem und neuem Wert gemeldet.
+ * Datenquellen in anderen Threads schreiben über den {@link #getUpdateScheduler()}.
+ * Der Zellspeicher selbst ist threadsicher: {@link #setData(UDim, Object)} sperrt nur die
+ * Kachel der Zelle, so dass mehrere Threads parallel in verschiedene Bereiche schreiben können.
  *
  * @author Bjoern Frohberg, mydata GmbH
  */
 public class GridEditor<T> {
     
-    private final ObservableList<CellModel<T>>                                      dataGridCells;
     private final CollectionSearchEngine<GridEditor<T>, CellModel<T>, CellModel<T>> searchEngineCells;
     private final CollectionSearchEngine<GridEditor<T>, CellModel<T>, UDim>         searchEnginePosition;
     private final CollectionSearchEngine<GridEditor<T>, CellModel<T>, T>            searchEngineData;
-    private final ChangeListener<CellModel<T>>                                      cellUpdateListener;
+    private final TiledCellStore<T>                                                 cellStore;
+    private final CellDataListener<T>                                               cellDataListener;
     private final Map<Integer, PositionViewMapper>                                  viewMappers;
+    private final ViewProjectionCache                                               projectionCache;
     private final Map<UDim, CellView<T>>                                            componentsCurrentViewID;
     private final UDim                                                              dimensions;
     private final Equal<T>                                                          indicator;
     private final Observable<Double>                                                scale;
     
     // variable
-    private       List<CellModel<T>>                                      visibleCellsInOrder;
-    private       CellConfig                                              visibleCellsConfig;
-    private       PositionViewMapper                                      visibleCellMapper;
-    private       int                                                     activeViewID;
-    private final Collection<EventHandler<GridEditor<T>, UpdateCellArgs>> updateEditorListeners;
+    private volatile List<UDim>                                                 visiblePositionsInOrder;
+    private volatile CellConfig                                                 visibleCellsConfig;
+    private volatile PositionViewMapper                                         visibleCellMapper;
+    private volatile SliceAddress                                               visibleSlice;
+    private volatile ViewRegion                                                 viewRegion;
+    private volatile ViewPlane                                                  visiblePlane;
+    private volatile int                                                        activeViewID;
+    private final    AtomicInteger                                              activationSequence;
+    private final    ThreadLocal<UpdateBatch>                                   batches;
+    private final    AtomicInteger                                              bulkLoads;
+    private          CellUpdateScheduler<T>                                     updateScheduler;
+    private          Executor                                                   queryExecutor;
+    private volatile CellDataIndex<T>                                           dataIndex;
+    private volatile GridJournal<T>                                             journal;
+    private volatile PersistentCellStore<T>                                     versions;
+    private final    Collection<EventHandler<GridEditor<T>, UpdateCellArgs>>    updateEditorListeners;
+    private final    Collection<EventHandler<GridEditor<T>, ChangeCellArgs<T>>> changeCellListeners;
+    private final    Collection<CellAggregate<T, ?>>                            aggregates;
     
     public GridEditor(int viewID, PositionViewMapper vConf, UDim dimensions, Equal<T> indicator) {
         this.dimensions = dimensions;
         this.indicator = indicator;
         
-        updateEditorListeners = new LinkedHashSet<>();
-        dataGridCells = FXCollections.observableArrayList();
-        cellUpdateListener = (observable, oldValue, newValue) -> GridEditor.this.onCellChanged(newValue);
-        dataGridCells.addListener(this::onDataGridCellsChanged);
+        updateEditorListeners = new CopyOnWriteArraySet<>();
+        batches = new ThreadLocal<>();
+        bulkLoads = new AtomicInteger();
+        activationSequence = new AtomicInteger();
+        changeCellListeners = new CopyOnWriteArraySet<>();
+        aggregates = new CopyOnWriteArrayList<>();
+        cellStore = new TiledCellStore<>(dimensions);
+        cellDataListener = this::onCellDataChanged;
         
-        searchEngineCells = new CollectionSearchEngine<>(this, dataGridCells);
-        searchEnginePosition = new CollectionSearchEngine<>(this, dataGridCells, CellModel::getPosition);
-        searchEngineData = new CollectionSearchEngine<>(this, dataGridCells, CellModel::getData);
+        // die Suchen durchlaufen den Zellspeicher kachelweise, Zellen entstehen auch in anderen Threads
+        StoredCells<T> searchCells = new StoredCells<>(cellStore);
+        searchEngineCells = new CollectionSearchEngine<>(this, searchCells);
+        searchEnginePosition = new CollectionSearchEngine<>(this, searchCells, CellModel::getPosition);
+        searchEngineData = new CollectionSearchEngine<>(this, searchCells, CellModel::getData);
         
         componentsCurrentViewID = new HashMap<>();
         
-        viewMappers = new HashMap<>();
+        viewMappers = new ConcurrentHashMap<>();
+        projectionCache = new ViewProjectionCache();
         registerView(viewID, vConf);
         
         scale = new Observable<>();
@@ -74,6 +124,10 @@ public class GridEditor<T> {
         scale.addListener(this::onScaleChanged);
     }
     
+    /**
+     * Für die Suche nach einem exakten Wert ist {@link #findByData(Object)} vorzuziehen,
+     * die bei aktiviertem Index ({@link #setDataIndexEnabled(boolean)}) in O(1) erfolgt.
+     */
     public CollectionSearchEngine<GridEditor<T>, CellModel<T>, T> getSearchEngineData() {
         return searchEngineData;
     }
@@ -82,171 +136,920 @@ public class GridEditor<T> {
         return searchEngineCells;
     }
     
+    /**
+     * Für die Suche nach einer exakten Koordinate ist {@link #getCell(UDim)} vorzuziehen,
+     * da diese über den Positions-Index in konstanter Zeit erfolgt.
+     */
     public CollectionSearchEngine<GridEditor<T>, CellModel<T>, UDim> getSearchEnginePosition() {
         return searchEnginePosition;
     }
     
+    /**
+     * Liefert die Zelle an der exakten Koordinate oder {@code null}, falls (noch)
+     * keine Zelle existiert. Die Suche erfolgt über den Positions-Index in O(1).
+     */
+    public CellModel<T> getCell(UDim position) {
+        return cellStore.get(position);
+    }
+    
+    /**
+     * Liefert die Zelle an der Koordinate und erzeugt sie bei Bedarf. Eine neu erzeugte Zelle
+     * wird der aktiven Ansicht als Aktualisierung gemeldet.
+     */
+    public CellModel<T> getOrCreateCell(UDim position) {
+        CellModel<T> cell = cellStore.get(position);
+        if(cell == null) {
+            CellModel<T> created = new CellModel<>(position, indicator);
+            // vor dem Veröffentlichen registrieren, damit keine Änderung verloren geht
+            created.addDataListener(cellDataListener);
+            synchronized (cellStore.lockFor(created)) {
+                cell = cellStore.putIfAbsent(created);
+                if(cell == null) {
+                    registerCell(created);
+                }
+            }
+            if(cell == null) {
+                cell = created;
+                notifyCellUpdated(position);
+            }
+        }
+        return cell;
+    }
+    
+    /**
+     * Setzt die Daten der Zelle und erzeugt sie bei Bedarf. Darf von mehreren Threads aufgerufen
+     * werden, Schreibzugriffe sind je Kachel des Zellspeichers gesperrt. Die Daten-Listener der
+     * Zelle und die {@link #addCellChangeListener(EventHandler) Änderungs-Listener} laufen unter
+     * dieser Sperre, damit Indizes und Protokoll die Reihenfolge je Zelle einhalten. Sie sollten
+     * daher kurz sein und dürfen nicht auf andere Threads warten, die in das Grid schreiben.
+     */
+    public void setData(UDim position, T data) {
+        CellModel<T> cell = getOrCreateCell(position);
+        synchronized (cellStore.lockFor(cell)) {
+            cell.setData(data);
+        }
+    }
+    
+    /**
+     * Schaltet den umgekehrten Index von Datenwert auf Positionen ein oder aus. Beim Einschalten
+     * wird der Index einmalig aus den vorhandenen Zellen aufgebaut und danach über die
+     * Daten-Listener der Zellen aktuell gehalten. Bis der Aufbau abgeschlossen ist, sucht
+     * {@link #findByData(Object)} weiterhin über alle Zellen.
+     *
+     * @throws IllegalStateException falls die Zellen mit einem {@link Equal} ohne Hash-Funktion
+     *                               verglichen werden, siehe {@link HashEqual}
+     */
+    public synchronized void setDataIndexEnabled(boolean enabled) {
+        if(!enabled) {
+            dataIndex = null;
+        } else if(dataIndex == null) {
+            if(indicator != null && !(indicator instanceof HashEqual)) {
+                throw new IllegalStateException("Data index requires a HashEqual, the indicator has no hash function!");
+            }
+            rebuildDataIndex();
+        }
+    }
+    
+    /**
+     * Veröffentlicht einen leeren Index und füllt ihn danach je Zelle unter der Kachelsperre, wie
+     * {@link #setVersioningEnabled(boolean)}. Änderungen während des Aufbaus schreiben damit
+     * bereits in den neuen Index und gehen nicht verloren.
+     */
+    private synchronized void rebuildDataIndex() {
+        CellDataIndex<T> index = new CellDataIndex<>((HashEqual<T>) indicator);
+        dataIndex = index;
+        cellStore.forEach(cell -> {
+            synchronized (cellStore.lockFor(cell)) {
+                if(cellStore.get(cell.getPosition()) == cell) {
+                    index.add(cell.getPosition(), cell.getData());
+                }
+            }
+        });
+        index.setComplete(true);
+    }
+    
+    public boolean isDataIndexEnabled() {
+        return dataIndex != null;
+    }
+    
+    /**
+     * Schaltet die Versionierung für {@link #snapshot()} ein oder aus. Beim Einschalten wird der
+     * {@link PersistentCellStore} einmalig aus den vorhandenen Zellen aufgebaut, danach schreibt
+     * jede Datenänderung zusätzlich ihren Pfad im Trie fort. {@link #snapshot()} wartet, bis der
+     * Aufbau abgeschlossen ist.
+     */
+    public synchronized void setVersioningEnabled(boolean enabled) {
+        if(!enabled) {
+            versions = null;
+        } else if(versions == null) {
+            PersistentCellStore<T> store = new PersistentCellStore<>(dimensions);
+            // ab hier schreiben Änderungen mit, der Aufbau übernimmt je Zelle unter der Kachelsperre
+            versions = store;
+            cellStore.forEach(cell -> {
+                synchronized (cellStore.lockFor(cell)) {
+                    if(cellStore.get(cell.getPosition()) == cell) {
+                        store.put(cell.getPosition(), cell.getData());
+                    }
+                }
+            });
+            store.setComplete();
+        }
+    }
+    
+    public boolean isVersioningEnabled() {
+        return versions != null;
+    }
+    
+    /**
+     * Liefert in O(1) den aktuellen Datenstand als unveränderliche {@link GridVersion}, die ohne
+     * Sperre aus anderen Threads gelesen werden kann, während weiter geschrieben wird. Läuft noch
+     * der Aufbau aus {@link #setVersioningEnabled(boolean)}, wartet der Aufruf auf dessen Ende.
+     *
+     * @throws IllegalStateException falls die Versionierung nicht eingeschaltet ist
+     */
+    public GridVersion<T> snapshot() {
+        PersistentCellStore<T> store = versions;
+        if(store != null && !store.isComplete()) {
+            // der Aufbau läuft unter der Sperre des Editors, erst danach ist der Stand vollständig
+            synchronized (this) {
+                store = versions;
+            }
+        }
+        if(store == null) {
+            throw new IllegalStateException("Versioning not enabled, see setVersioningEnabled(boolean)!");
+        }
+        return store.snapshot();
+    }
+    
+    /**
+     * Sucht alle Zellen, deren Daten laut {@link Equal} dem Wert entsprechen. Mit aktiviertem
+     * Index in O(1), sonst über alle Zellen des {@link TiledCellStore}. Während eines Imports
+     * wird der Index nicht fortgeschrieben, bis zu seinem Neuaufbau wird daher ebenfalls über
+     * alle Zellen gesucht.
+     */
+    public List<CellModel<T>> findByData(T data) {
+        CellDataIndex<T> index = dataIndex;
+        List<CellModel<T>> cells = new ArrayList<>();
+        if(index == null || !index.isComplete() || bulkLoads.get() > 0) {
+            cellStore.forEach(cell -> {
+                T cellData = cell.getData();
+                if(cellData != null && isEqualData(cellData, data)) {
+                    cells.add(cell);
+                }
+            });
+            return cells;
+        }
+        for (UDim position : index.get(data)) {
+            CellModel<T> cell = cellStore.get(position);
+            if(cell != null) {
+                cells.add(cell);
+            }
+        }
+        return cells;
+    }
+    
+    /**
+     * Sucht asynchron über alle erzeugten Zellen, ohne den aufrufenden Thread (i.d.R. den EDT)
+     * zu blockieren. Treffer werden je Kachel an {@code partialResults} gemeldet (im Such-Thread,
+     * für Swing also per {@link javax.swing.SwingUtilities#invokeLater(Runnable)} weiterreichen).
+     * Für eine Suche während der Eingabe wird das Ergebnis der vorherigen Suche mit
+     * {@link CompletableFuture#cancel(boolean)} abgebrochen, bevor die neue startet.
+     *
+     * @param partialResults Teilergebnisse, darf {@code null} sein
+     * @return alle Treffer in Adressreihenfolge
+     */
+    public CompletableFuture<List<CellModel<T>>> findAsync(Predicate<? super CellModel<T>> filter, Consumer<? super List<CellModel<T>>> partialResults) {
+        GridQuery<T> query = new GridQuery<>(cellStore, filter, partialResults);
+        getQueryExecutor().execute(query);
+        return query.getResult();
+    }
+    
+    /**
+     * Wie {@link #findAsync(Predicate, Consumer)}, der Filter prüft die Daten der Zellen.
+     */
+    public CompletableFuture<List<CellModel<T>>> findByDataAsync(Predicate<? super T> filter, Consumer<? super List<CellModel<T>>> partialResults) {
+        return findAsync(cell -> filter.test(cell.getData()), partialResults);
+    }
+    
+    /**
+     * Legt den Executor für asynchrone Suchen fest. Ohne Angabe wird ein eigener Pool aus
+     * Daemon-Threads verwendet.
+     */
+    public synchronized void setQueryExecutor(Executor queryExecutor) {
+        this.queryExecutor = queryExecutor;
+    }
+    
+    private synchronized Executor getQueryExecutor() {
+        if(queryExecutor == null) {
+            queryExecutor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "GridEditor-Query");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return queryExecutor;
+    }
+    
+    private boolean isEqualData(T a, T b) {
+        return indicator == null
+               ? Objects.equals(a, b)
+               : indicator.isEqual(a, b);
+    }
+    
+    /**
+     * Liefert den Scheduler, über den Threads außerhalb des EDT Zelldaten schreiben. Die Werte
+     * werden je Zelle zusammengefasst und höchstens einmal je Frame im EDT angewendet.
+     */
+    public synchronized CellUpdateScheduler<T> getUpdateScheduler() {
+        if(updateScheduler == null) {
+            updateScheduler = new CellUpdateScheduler<>(this);
+        }
+        return updateScheduler;
+    }
+    
+    /**
+     * @return die Anzahl tatsächlich erzeugter Zellen
+     */
+    public int getCellCount() {
+        return cellStore.size();
+    }
+    
+    public UDim getDimensions() {
+        return dimensions;
+    }
+    
+    /**
+     * Durchläuft alle erzeugten Zellen in Adressreihenfolge des Zellspeichers.
+     */
+    public void forEachCell(Consumer<? super CellModel<T>> action) {
+        cellStore.forEach(action);
+    }
+    
+    /**
+     * Erzeugt eine Zelle mit Daten, ohne sie dem Grid hinzuzufügen (siehe {@link #addCells(Collection)}).
+     */
+    public CellModel<T> createCell(UDim position, T data) {
+        CellModel<T> cell = new CellModel<>(position, indicator);
+        cell.setData(data);
+        return cell;
+    }
+    
+    /**
+     * Übernimmt mit {@link #createCell(UDim, Object)} erzeugte Zellen als Ganzes: ohne Meldung je
+     * Zelle, Indizes und Kennzahlen werden nachgezogen und die aktive Ansicht einmalig neu
+     * aufgebaut. Für bereits belegte Positionen werden nur die Daten übernommen.
+     */
+    public void addCells(Collection<CellModel<T>> cells) {
+        List<CellModel<T>> added;
+        beginUpdate();
+        try {
+            added = storeCells(cells);
+            if(!added.isEmpty()) {
+                CellDataIndex<T> index = dataIndex;
+                if(index != null) {
+                    for (CellModel<T> cell : added) {
+                        synchronized (cellStore.lockFor(cell)) {
+                            index.add(cell.getPosition(), cell.getData());
+                        }
+                    }
+                }
+                resetViewRegion();
+            }
+        } finally {
+            endUpdate();
+        }
+        if(!added.isEmpty()) {
+            updateLayout(true, visiblePositionsInOrder);
+            compactJournal();
+        }
+    }
+    
+    /**
+     * Legt die Zellen im Zellspeicher ab, für bereits belegte Positionen werden nur die Daten
+     * übernommen.
+     *
+     * @return die neu abgelegten Zellen
+     */
+    private List<CellModel<T>> storeCells(Collection<CellModel<T>> cells) {
+        List<CellModel<T>> added = new ArrayList<>(cells.size());
+        for (CellModel<T> cell : cells) {
+            // vor dem Veröffentlichen registrieren, wie in getOrCreateCell
+            cell.addDataListener(cellDataListener);
+            CellModel<T> existing;
+            synchronized (cellStore.lockFor(cell)) {
+                existing = cellStore.putIfAbsent(cell);
+                if(existing == null) {
+                    registerCell(cell);
+                }
+            }
+            if(existing == null) {
+                added.add(cell);
+            } else {
+                cell.removeDataListener(cellDataListener);
+                synchronized (cellStore.lockFor(existing)) {
+                    existing.setData(cell.getData());
+                }
+            }
+        }
+        return added;
+    }
+    
+    public GridBulkLoader<T> openBulkLoader() {
+        return openBulkLoader(GridBulkLoader.DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Öffnet einen Import, der Zellen über eine begrenzte Warteschlange direkt in den Zellspeicher
+     * schreibt. Bis zum Schließen des letzten Imports werden Datenänderungen weder gemeldet noch in
+     * Indizes und Kennzahlen fortgeschrieben; diese werden am Ende einmalig neu aufgebaut und die
+     * aktive Ansicht mit einem einzigen {@link UpdateCellArgs} neu initialisiert.
+     *
+     * @param capacity Anzahl Zellen, die höchstens auf das Schreiben warten
+     */
+    public GridBulkLoader<T> openBulkLoader(int capacity) {
+        bulkLoads.incrementAndGet();
+        try {
+            GridBulkLoader<T> loader = new GridBulkLoader<>(this, capacity);
+            CellDataIndex<T>  index  = dataIndex;
+            if(index != null) {
+                // bleibt unvollständig, bis finishBulkLoad() den Index neu aufbaut
+                index.setComplete(false);
+            }
+            return loader;
+        } catch (RuntimeException e) {
+            bulkLoads.decrementAndGet();
+            throw e;
+        }
+    }
+    
+    public boolean isBulkLoading() {
+        return bulkLoads.get() > 0;
+    }
+    
+    /**
+     * Schreibt einen Block eines {@link GridBulkLoader}, ohne Meldungen.
+     */
+    void storeBulk(List<CellModel<T>> cells) {
+        storeCells(cells);
+    }
+    
+    /**
+     * Schließt einen {@link GridBulkLoader} ab. Mit dem letzten offenen Import werden Indizes und
+     * Kennzahlen neu aufgebaut und die aktive Ansicht einmalig neu initialisiert.
+     */
+    void finishBulkLoad() {
+        if(bulkLoads.decrementAndGet() > 0) {
+            return;
+        }
+        synchronized (this) {
+            if(dataIndex != null) {
+                rebuildDataIndex();
+            }
+        }
+        for (CellAggregate<T, ?> aggregate : aggregates) {
+            fillAggregate(aggregate);
+        }
+        resetViewRegion();
+        updateLayout(true, visiblePositionsInOrder);
+        compactJournal();
+    }
+    
+    /**
+     * @return das geöffnete Änderungsprotokoll ({@link GridJournal}) oder {@code null}
+     */
+    public GridJournal<T> getJournal() {
+        return journal;
+    }
+    
+    void setJournal(GridJournal<T> journal) {
+        this.journal = journal;
+    }
+    
+    /**
+     * Massenübernahmen werden nicht je Zelle protokolliert, sondern durch einen neuen Snapshot gesichert.
+     */
+    private void compactJournal() {
+        GridJournal<T> journal = this.journal;
+        if(journal != null) {
+            journal.compact();
+        }
+    }
+    
     private void onScaleChanged(ObservableValue<? extends Double> scaleProperty, Double old, Double now) {
-        updateLayout(false, visibleCellsInOrder);
+        updateLayout(false, visiblePositionsInOrder);
     }
     
     public void registerView(int viewID, PositionViewMapper vConf) {
         viewMappers.put(viewID, vConf);
+        projectionCache.invalidate(viewID);
+    }
+    
+    /**
+     * @return die registrierten Ansichten je View-ID (nicht veränderbar)
+     */
+    public Map<Integer, PositionViewMapper> getViews() {
+        return Collections.unmodifiableMap(viewMappers);
     }
     
+    public ViewProjectionCache getProjectionCache() {
+        return projectionCache;
+    }
+    
+    /**
+     * Aktiviert die Ansicht im aufrufenden Thread. Die Projektion wird außerhalb der Sperre
+     * berechnet; wurde währenddessen eine andere Ansicht aktiviert, hat diese Vorrang.
+     */
     public void activateView(int viewID) {
+        PositionViewMapper mapper    = viewMappers.get(viewID);
+        int                sequence  = activationSequence.incrementAndGet();
+        List<UDim>         positions = mapper == null || mapper.getSliceIndices() != null
+                                       ? null
+                                       : getProjection(viewID, mapper, null);
+        synchronized (activationSequence) {
+            if(activationSequence.get() != sequence) {
+                return;
+            }
+            if(mapper != null) {
+                applyView(viewID, mapper, positions);
+            } else {
+                activeViewID = viewID;
+                visibleCellMapper = null;
+            }
+        }
+    }
+    
+    /**
+     * Aktiviert die Ansicht, ohne den aufrufenden Thread (i.d.R. den EDT) für die Berechnung
+     * der Projektion zu blockieren. Die Positionen werden parallel auf dem
+     * {@link ForkJoinPool#commonPool()} bestimmt, der Fortschritt (0..1) wird aus den
+     * Worker-Threads gemeldet. Wird zwischenzeitlich eine andere Ansicht aktiviert, verfällt
+     * das Ergebnis (die Projektion bleibt aber im Cache).
+     *
+     * @param progress Fortschritt, darf {@code null} sein
+     */
+    public CompletableFuture<Void> activateViewAsync(int viewID, DoubleConsumer progress) {
+        PositionViewMapper mapper = viewMappers.get(viewID);
+        if(mapper == null || mapper.getSliceIndices() != null || projectionCache.get(viewID) != null) {
+            activateView(viewID);
+            if(progress != null) {
+                progress.accept(1d);
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        int sequence = activationSequence.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> getProjection(viewID, mapper, progress), ForkJoinPool.commonPool())
+                                .thenAccept(positions -> {
+                                    synchronized (activationSequence) {
+                                        if(activationSequence.get() == sequence) {
+                                            applyView(viewID, mapper, positions);
+                                        }
+                                    }
+                                });
+    }
+    
+    private List<UDim> getProjection(int viewID, PositionViewMapper mapper, DoubleConsumer progress) {
+        List<UDim> positions = projectionCache.get(viewID);
+        if(positions == null) {
+            positions = Collections.unmodifiableList(getViewPositionsOrdered(mapper, progress));
+            projectionCache.put(viewID, positions);
+        }
+        return positions;
+    }
+    
+    /**
+     * @param positions Projektion der Ansicht, {@code null} für Schnitt-Ansichten
+     */
+    private void applyView(int viewID, PositionViewMapper mapper, List<UDim> positions) {
+        int columnCount = dimensions.getV(mapper.getHorizontalAxisIndex());
+        int rowCount    = dimensions.getV(mapper.getVerticalAxisIndex());
+        
         activeViewID = viewID;
-        visibleCellMapper = viewMappers.get(viewID);
-        if(visibleCellMapper != null) {
-            visibleCellsInOrder = getViewModelsOrdered(visibleCellMapper);
-            
-            int columnCount = dimensions.getV(visibleCellMapper.getHorizontalAxisIndex());
-            int rowCount    = dimensions.getV(visibleCellMapper.getVerticalAxisIndex());
-            
-            visibleCellsConfig = new CellConfig(visibleCellMapper.getAspect(), visibleCellMapper.getCellMinSize(), scale.getValue(),
-                                                columnCount,
-                                                rowCount);
-            updateLayout(true, visibleCellsInOrder);
+        visibleCellMapper = mapper;
+        if(positions == null) {
+            // Schnitt: Adressen per Schrittweiten, Positionen erst bei Zugriff
+            visibleSlice = new SliceAddress(mapper.getSliceIndices(), mapper);
+            visiblePositionsInOrder = new SliceProjection(mapper, columnCount, rowCount);
+        } else {
+            visibleSlice = null;
+            visiblePositionsInOrder = positions;
+        }
+        
+        visibleCellsConfig = new CellConfig(mapper.getAspect(), mapper.getCellMinSize(), scale.getValue(),
+                                            columnCount,
+                                            rowCount);
+        resetViewRegion();
+        visiblePlane = new ViewPlane(mapper);
+        for (CellAggregate<T, ?> aggregate : aggregates) {
+            fillAggregate(aggregate);
         }
+        updateLayout(true, visiblePositionsInOrder);
     }
     
-    protected void updateLayout(boolean reinit, List<CellModel<T>> cells) {
-        if(visibleCellMapper != null) {
-            List<UDim> positions = cells.stream().map(CellModel::getPosition).collect(Collectors.toList());
-            UpdateCellArgs args = new UpdateCellArgs(reinit,
-                                                     positions,
-                                                     visibleCellsConfig,
-                                                     visibleCellMapper);
-            updateEditorListeners.stream().collect(Collectors.toList()).forEach(h -> h.onCallback(this, args));
+    /**
+     * Verschiebt den Schnitt der aktiven {@link SliceViewMapper}-Ansicht auf der Achse zum Index.
+     * Nur Basisadresse und Ebene werden neu ausgerichtet, Projektion und Zellkonfiguration
+     * bleiben bestehen. Kennzahlen werden aus den Adressen der neuen Ebene aufgebaut, die
+     * Darstellung muss nur die sichtbaren Zellen neu auflösen.
+     */
+    public void setSliceIndex(int axis, int index) {
+        synchronized (activationSequence) {
+            PositionViewMapper mapper = visibleCellMapper;
+            if(!(mapper instanceof SliceViewMapper)) {
+                throw new IllegalStateException("Active view " + activeViewID + " is no slice view!");
+            }
+            ((SliceViewMapper) mapper).setSliceIndex(axis, index);
+            // eine laufende asynchrone Aktivierung verfällt wie bei activateView
+            activationSequence.incrementAndGet();
+            visibleSlice = new SliceAddress(mapper.getSliceIndices(), mapper);
+            visiblePlane = new ViewPlane(mapper);
+            resetViewRegion();
+            for (CellAggregate<T, ?> aggregate : aggregates) {
+                fillAggregate(aggregate);
+            }
+            updateLayout(true, visiblePositionsInOrder);
         }
     }
     
     /**
-     * Diese Methode bestimmt die geordneten Zellen (ViewModel's), die sich durch
-     * die Ansicht theoretisch ergeben. Der {@link PositionViewMapper} fungiert hierbei als Konverter
-     * zwischen der multidimensionalen Koordinate und einer TopView-2D-Koordinate, wie die Betrachtung
-     * einer Seite eines Würfels, beispielsweise oder eine Seite einer Fläche in eines 3-Dimensionalen
-     * Hexagons.
+     * Liefert die Zelle an Spalte und Zeile der aktiven Ansicht oder {@code null}, falls dort
+     * (noch) keine Zelle existiert. Für Schnitt-Ansichten wird die Adresse per Schrittweiten
+     * berechnet, ohne eine Koordinate zu erzeugen.
+     */
+    public CellModel<T> getViewCell(int column, int row) {
+        PositionViewMapper mapper = visibleCellMapper;
+        CellConfig         config = visibleCellsConfig;
+        if(mapper == null || config == null
+           || column < 0 || row < 0 || column >= config.getColumnCount() || row >= config.getRowCount()) {
+            return null;
+        }
+        SliceAddress slice = visibleSlice;
+        if(slice != null) {
+            return cellStore.get(slice.base + column * slice.columnStride + row * slice.rowStride);
+        }
+        return cellStore.get(mapper.convert(column, row));
+    }
+    
+    /**
+     * Liefert die Stelle der Zelle in der Reihenfolge der aktiven Ansicht, wie sie auch
+     * {@link UpdateCellArgs#getViewCells()} einhält.
      *
-     * @param mapper
-     * @return
-     */
-    private List<CellModel<T>> getViewModelsOrdered(PositionViewMapper mapper) {
-        List<CellModel<T>> cellsForView = new ArrayList<>();
-        int                hzAxisI      = mapper.getHorizontalAxisIndex();
-        int                vtAxisI      = mapper.getVerticalAxisIndex();
-        
-        boolean reverseH = mapper.iterateReversedHorizontal();
-        boolean reverseV = mapper.iterateReversedVertical();
-        int     evenMin  = 0;
-        int     evenMax  = dimensions.getV(vtAxisI);
-        int     oddMin   = 0;
-        int     oddMax   = dimensions.getV(hzAxisI);
-        int     evenMove = 1;
-        int     oddMove  = 1;
-        
-        PositionViewMapper.IterationMode iterationMode = mapper.getIterationMode();
-        if(iterationMode != PositionViewMapper.IterationMode.Y_THEN_X) {
-            evenMax = dimensions.getV(hzAxisI);
-            oddMax = dimensions.getV(vtAxisI);
-        }
-        
-        if(reverseH) {
-            evenMin = evenMax;
-            evenMax = -1;
-            evenMove = -1;
-        }
-        
-        if(reverseV) {
-            oddMin = oddMax;
-            oddMax = -1;
-            oddMove = -1;
-        }
-        
-        StringBuilder sb    = new StringBuilder();
-        int[][]       array = new int[evenMax][oddMax];
-        int i=0;
-        for (int o = oddMin; o < oddMax; o += oddMove) {
-            if(sb.length() > 0) {
-                sb.append(System.lineSeparator());
-            }
-            sb.append("[");
-            for (int e = evenMin; e < evenMax; e += evenMove) {
-                UDim pos;
-                if(iterationMode == PositionViewMapper.IterationMode.X_THEN_Y) {
-                    pos = mapper.convert(e,o);
-                } else {
-                    pos = mapper.convert(o,e);
+     * @return {@code -1}, falls keine (bekannte) Ansicht aktiv ist
+     */
+    public int getViewIndex(int column, int row) {
+        PositionViewMapper mapper = visibleCellMapper;
+        CellConfig         config = visibleCellsConfig;
+        if(mapper == null || config == null) {
+            return -1;
+        }
+        boolean            xThenY = mapper.getIterationMode() != PositionViewMapper.IterationMode.Y_THEN_X;
+        int                even   = xThenY ? column : row;
+        int                odd    = xThenY ? row : column;
+        int                evens  = xThenY ? config.getColumnCount() : config.getRowCount();
+        int                odds   = xThenY ? config.getRowCount() : config.getColumnCount();
+        if(mapper.iterateReversedHorizontal()) {
+            even = evens - 1 - even;
+        }
+        if(mapper.iterateReversedVertical()) {
+            odd = odds - 1 - odd;
+        }
+        return odd * evens + even;
+    }
+    
+    /**
+     * Liefert alle Zellen mit Daten im Bereich (Spalten und Zeilen) der aktiven Ansicht,
+     * zeilenweise von links nach rechts. Der Aufwand richtet sich nach der Trefferzahl, nicht
+     * nach der Größe des Bereichs. Die erste Bereichsabfrage nach einem Wechsel der Ansicht
+     * baut die Belegung einmalig aus allen Zellen auf, siehe {@link #getViewRegion()}.
+     */
+    public List<CellModel<T>> findInRegion(Rectangle region) {
+        List<CellModel<T>> cells = new ArrayList<>();
+        ViewRegion         view  = getViewRegion();
+        if(view != null) {
+            view.index.forEach(region, (column, row) -> {
+                CellModel<T> cell = getViewCell(column, row);
+                if(cell != null && cell.getData() != null) {
+                    cells.add(cell);
                 }
-                verifyDimensionsOrThrow(pos);
-                array[e][o] = i++;
-                if(e > 0) {
-                    sb.append(", ");
+            });
+        }
+        return cells;
+    }
+    
+    /**
+     * Liefert Spalte und Zeile der nächsten Zelle mit Daten nach der angegebenen Stelle
+     * in Lese-Reihenfolge der aktiven Ansicht oder {@code null}. Mit Spalte {@code -1} wird
+     * die Zeile ab ihrem Anfang durchsucht.
+     */
+    public Point nextNonEmpty(int column, int row) {
+        ViewRegion view = getViewRegion();
+        if(view == null) {
+            return null;
+        }
+        Point next = view.index.next(column, row);
+        while (next != null && isEmpty(getViewCell(next.x, next.y))) {
+            next = view.index.next(next.x, next.y);
+        }
+        return next;
+    }
+    
+    /**
+     * Liefert Spalte und Zeile der vorherigen Zelle mit Daten vor der angegebenen Stelle
+     * in Lese-Reihenfolge der aktiven Ansicht oder {@code null}.
+     */
+    public Point previousNonEmpty(int column, int row) {
+        ViewRegion view = getViewRegion();
+        if(view == null) {
+            return null;
+        }
+        Point previous = view.index.previous(column, row);
+        while (previous != null && isEmpty(getViewCell(previous.x, previous.y))) {
+            previous = view.index.previous(previous.x, previous.y);
+        }
+        return previous;
+    }
+    
+    private static boolean isEmpty(CellModel<?> cell) {
+        return cell == null || cell.getData() == null;
+    }
+    
+    /**
+     * Baut die Belegung (Zellen mit Daten) der aktiven Ansicht bei der ersten Bereichsabfrage
+     * auf; dieser Aufbau durchläuft einmalig alle Zellen. Danach wird sie mit jeder erzeugten
+     * bzw. entfernten Zelle und jedem Wechsel zwischen {@code null} und einem Wert fortgeschrieben,
+     * bis die Ansicht gewechselt oder als Ganzes neu aufgebaut wird.
+     */
+    private synchronized ViewRegion getViewRegion() {
+        ViewRegion         view   = viewRegion;
+        PositionViewMapper mapper = visibleCellMapper;
+        CellConfig         config = visibleCellsConfig;
+        if(view == null && mapper != null && config != null) {
+            view = new ViewRegion(mapper, config);
+            // vor dem Befüllen veröffentlichen, damit parallel erzeugte Zellen nicht fehlen
+            viewRegion = view;
+            ViewRegion filling = view;
+            cellStore.forEach(cell -> {
+                synchronized (cellStore.lockFor(cell)) {
+                    if(cell.getData() != null) {
+                        filling.update(cell.getPosition(), true);
+                    }
                 }
-                sb.append(array[e][o]);
-                
-                CellModel<T> cellOrNull = searchEngineCells.findSync(m -> m.getPosition().equals(pos)).stream().findFirst().orElse(null);
-                if(cellOrNull == null) {
-                    CellModel<T> model = new CellModel<>(pos, indicator);
-                    cellOrNull = model;
-                    dataGridCells.addAll(Collections.singleton(model));
-                } else {
-                    System.out.append("C!=").append(Arrays.toString(new int[]{e, o})).append(System.lineSeparator());
+            });
+        }
+        return view;
+    }
+    
+    private synchronized void resetViewRegion() {
+        viewRegion = null;
+    }
+    
+    /**
+     * Registriert eine Kennzahl je Zeile bzw. Spalte der aktiven Ansicht, z.B. mit
+     * {@link Aggregators#sum(java.util.function.ToDoubleFunction)}. Sie wird einmalig aus den
+     * vorhandenen Zellen aufgebaut (ebenso bei jedem Wechsel der Ansicht) und danach mit jeder
+     * Datenänderung fortgeschrieben.
+     */
+    public <R> CellAggregate<T, R> addAggregate(CellAggregate.Orientation orientation, Supplier<? extends Aggregator<T, R>> factory) {
+        CellAggregate<T, R> aggregate = new CellAggregate<>(orientation, factory);
+        // vor dem Aufbau veröffentlichen, damit parallele Änderungen nicht verloren gehen
+        aggregates.add(aggregate);
+        fillAggregate(aggregate);
+        return aggregate;
+    }
+    
+    public void removeAggregate(CellAggregate<T, ?> aggregate) {
+        aggregates.remove(aggregate);
+    }
+    
+    /**
+     * Baut die Kennzahl unter der Kachelsperre auf: Änderungen einer Zelle werden erst
+     * fortgeschrieben, wenn der Aufbau ihre Adresse passiert hat, so dass jede Zelle genau einmal
+     * zählt. Für Schnitt-Ansichten werden nur die Adressen der Ebene besucht, sonst alle Kacheln.
+     */
+    private <R> void fillAggregate(CellAggregate<T, R> aggregate) {
+        SliceAddress slice      = visibleSlice;
+        ViewPlane    plane      = visiblePlane;
+        CellConfig   config     = visibleCellsConfig;
+        boolean      rows       = aggregate.getOrientation() == CellAggregate.Orientation.ROW;
+        int          generation = aggregate.reset(plane == null || config == null
+                                                  ? 0
+                                                  : rows
+                                                    ? config.getRowCount()
+                                                    : config.getColumnCount());
+        if(slice != null && plane != null && config != null) {
+            // aufsteigende Adressen: innen entlang der kleineren Schrittweite
+            boolean columnsInner = slice.columnStride < slice.rowStride;
+            int     inners       = columnsInner ? config.getColumnCount() : config.getRowCount();
+            int     outers       = columnsInner ? config.getRowCount() : config.getColumnCount();
+            for (int outer = 0; outer < outers; outer++) {
+                for (int inner = 0; inner < inners; inner++) {
+                    int  column  = columnsInner ? inner : outer;
+                    int  row     = columnsInner ? outer : inner;
+                    long address = slice.base + column * slice.columnStride + row * slice.rowStride;
+                    synchronized (cellStore.lockFor(address)) {
+                        CellModel<T> cell = cellStore.get(address);
+                        if(cell != null) {
+                            aggregate.add(generation, rows
+                                                      ? row
+                                                      : column, cell.getData());
+                        }
+                        aggregate.setFilled(generation, address + 1);
+                    }
                 }
-                cellsForView.add(cellOrNull);
-                
-                // vorwärts
-                
-                // X_THEN_Y
-                // x-y:0 = 0,1,2
-                // x-y:1 = 3,4,5
-                
-                // X_THEN_Y
-                // y-x:0 = 0,2,4
-                // y-x:1 = 1,3,5
             }
-            sb.append("]");
+        } else if(plane != null && config != null) {
+            List<CellModel<T>> tile = new ArrayList<>();
+            for (int i = 0; i < cellStore.getTileSlots(); i++) {
+                synchronized (cellStore.lockForTile(i)) {
+                    cellStore.collectTile(i, tile);
+                    for (CellModel<T> cell : tile) {
+                        UDim position = cell.getPosition();
+                        if(plane.contains(position)) {
+                            aggregate.add(generation, rows
+                                                      ? plane.getRow(position)
+                                                      : plane.getColumn(position), cell.getData());
+                        }
+                    }
+                    aggregate.setFilled(generation, (long) (i + 1) << TiledCellStore.TILE_SHIFT);
+                }
+                tile.clear();
+            }
+        }
+        aggregate.setFilled(generation, Long.MAX_VALUE);
+        aggregate.notifyReinit();
+    }
+    
+    private void updateAggregates(UDim position, T oldData, T newData) {
+        long address = cellStore.address(position);
+        // die Ebene unter der Kachelsperre lesen, ein neuer Aufbau erreicht die Kachel erst danach
+        synchronized (cellStore.lockFor(address)) {
+            ViewPlane plane = visiblePlane;
+            if(plane == null || !plane.contains(position)) {
+                return;
+            }
+            for (CellAggregate<T, ?> aggregate : aggregates) {
+                aggregate.update(address, aggregate.getOrientation() == CellAggregate.Orientation.ROW
+                                          ? plane.getRow(position)
+                                          : plane.getColumn(position), oldData, newData);
+            }
         }
-
-        System.out.println("Created Views:" + System.lineSeparator() + sb.toString());
-        return cellsForView;
     }
     
-    private void verifyDimensionsOrThrow(UDim pos) {
-        if(pos.getDimensions() != dimensions.getDimensions()) {
-            throw new IllegalArgumentException("Pos dimensions count inequivalent to dimensions-dimensions count!");
+    /**
+     * Führt die Änderungen als Einheit aus. Alle währenddessen geänderten Zellen werden
+     * erst am Ende mit einem einzigen {@link UpdateCellArgs} gemeldet.
+     */
+    public void edit(Consumer<GridEditor<T>> batch) {
+        beginUpdate();
+        try {
+            batch.accept(this);
+        } finally {
+            endUpdate();
+        }
+    }
+    
+    /**
+     * Beginnt eine (ggf. verschachtelte) Bündelung von Änderungen des aufrufenden Threads. Jeder
+     * Aufruf muss im selben Thread mit {@link #endUpdate()} abgeschlossen werden. Änderungen
+     * anderer Threads werden währenddessen weiter einzeln gemeldet.
+     */
+    public void beginUpdate() {
+        UpdateBatch batch = batches.get();
+        if(batch == null) {
+            batches.set(batch = new UpdateBatch());
         }
+        batch.depth++;
     }
     
-    private void onDataGridCellsChanged(ListChangeListener.Change<? extends CellModel<T>> change) {
-        // die Zellen-Update registrieren
-        if(change.next()) {
-            if(change.wasAdded()) {
-                change.getAddedSubList().forEach(this::registerCell);
-            } else if(change.wasRemoved()) {
-                change.getRemoved().forEach(this::unregisterCell);
+    /**
+     * Schließt eine Bündelung ab. Mit der äußersten Bündelung werden die gesammelten
+     * Positionen einmalig gemeldet.
+     */
+    public void endUpdate() {
+        UpdateBatch batch = batches.get();
+        if(batch == null) {
+            throw new IllegalStateException("endUpdate() without beginUpdate()!");
+        }
+        if(--batch.depth == 0) {
+            batches.remove();
+            if(!batch.positions.isEmpty()) {
+                updateLayout(false, new ArrayList<>(batch.positions));
             }
         }
     }
     
-    private void unregisterCell(CellModel<T> cell) {
-        cell.removeListener(cellUpdateListener);
+    /**
+     * @return {@code true}, wenn der aufrufende Thread Änderungen bündelt
+     */
+    public boolean isUpdating() {
+        return batches.get() != null;
+    }
+    
+    private void notifyCellUpdated(UDim position) {
+        UpdateBatch batch = batches.get();
+        if(batch != null) {
+            batch.positions.add(position);
+        } else {
+            updateLayout(false, Collections.singletonList(position));
+        }
+    }
+    
+    protected void updateLayout(boolean reinit, List<UDim> positions) {
+        if(visibleCellMapper != null) {
+            UpdateCellArgs args = new UpdateCellArgs(reinit,
+                                                     positions,
+                                                     visibleCellsConfig,
+                                                     visibleCellMapper);
+            updateEditorListeners.stream().collect(Collectors.toList()).forEach(h -> h.onCallback(this, args));
+        }
+    }
+    
+    /**
+     * Diese Methode bestimmt die geordneten Positionen der Zellen, die sich durch
+     * die Ansicht theoretisch ergeben. Zellen werden hierbei nicht erzeugt. Der {@link PositionViewMapper} fungiert hierbei als Konverter
+     * zwischen der multidimensionalen Koordinate und einer TopView-2D-Koordinate, wie die Betrachtung
+     * einer Seite eines Würfels, beispielsweise oder eine Seite einer Fläche in eines 3-Dimensionalen
+     * Hexagons.
+     *
+     * @param mapper   Ansicht
+     * @param progress Fortschritt (0..1), darf {@code null} sein
+     * @return die Positionen in Ansichts-Reihenfolge
+     */
+    private List<UDim> getViewPositionsOrdered(PositionViewMapper mapper, DoubleConsumer progress) {
+        // Zeilenbänder parallel, jedes Band füllt seinen Abschnitt in Ansichts-Reihenfolge
+        return new ViewProjectionBuilder(mapper, dimensions, progress).build();
     }
     
+    /**
+     * Schreibt eine neu im Zellspeicher abgelegte Zelle in Versionen, Kennzahlen und Belegung
+     * fort. Der Daten-Listener ist zu diesem Zeitpunkt bereits registriert, der Aufrufer hält
+     * die Kachelsperre seit dem Ablegen, damit weder eine gleichzeitige Datenänderung
+     * überschrieben noch die Zelle von einem Aufbau der Kennzahlen doppelt gezählt wird.
+     */
     private void registerCell(CellModel<T> cell) {
-        cell.addListener(cellUpdateListener);
+        PersistentCellStore<T> store = versions;
+        if(store != null) {
+            store.put(cell.getPosition(), cell.getData());
+        }
+        if(!aggregates.isEmpty() && cell.getData() != null && bulkLoads.get() == 0) {
+            updateAggregates(cell.getPosition(), null, cell.getData());
+        }
+        ViewRegion view = viewRegion;
+        if(view != null) {
+            view.update(cell.getPosition(), cell.getData() != null);
+        }
     }
     
     public void addEditListener(EventHandler<GridEditor<T>, UpdateCellArgs> listener) {
         updateEditorListeners.add(listener);
     }
     
-    private void onCellChanged(CellModel<T> cell) {
-        
+    /**
+     * Registriert einen Listener, der je geänderter Zelle mit Position, altem und neuem Wert
+     * benachrichtigt wird. Innerhalb einer Bündelung werden stattdessen die Positionen gesammelt.
+     * Der Listener läuft im schreibenden Thread unter der Kachelsperre der Zelle, siehe
+     * {@link #setData(UDim, Object)}.
+     */
+    public void addCellChangeListener(EventHandler<GridEditor<T>, ChangeCellArgs<T>> listener) {
+        changeCellListeners.add(listener);
+    }
+    
+    public void removeCellChangeListener(EventHandler<GridEditor<T>, ChangeCellArgs<T>> listener) {
+        changeCellListeners.remove(listener);
     }
     
     private void onCellDataChanged(CellModel<T> cell, T dataOld, T dataNow) {
-        
+        GridJournal<T> journal = this.journal;
+        if(journal != null) {
+            journal.append(cell.getPosition(), dataNow);
+        }
+        PersistentCellStore<T> store = versions;
+        if(store != null) {
+            store.put(cell.getPosition(), dataNow);
+        }
+        if(bulkLoads.get() > 0) {
+            // Import: Indizes, Kennzahlen und Ansicht werden am Ende neu aufgebaut
+            return;
+        }
+        CellDataIndex<T> index = dataIndex;
+        if(index != null) {
+            index.update(cell.getPosition(), dataOld, dataNow);
+        }
+        if(!aggregates.isEmpty()) {
+            updateAggregates(cell.getPosition(), dataOld, dataNow);
+        }
+        ViewRegion view = viewRegion;
+        if(view != null && (dataOld == null) != (dataNow == null)) {
+            view.update(cell.getPosition(), dataNow != null);
+        }
+        UpdateBatch batch = batches.get();
+        if(batch != null) {
+            batch.positions.add(cell.getPosition());
+        } else if(!changeCellListeners.isEmpty()) {
+            ChangeCellArgs<T> args = new ChangeCellArgs<>(cell.getPosition(), dataOld, dataNow);
+            for (EventHandler<GridEditor<T>, ChangeCellArgs<T>> listener : changeCellListeners) {
+                listener.onCallback(this, args);
+            }
+        }
     }
     
     public int getColumn(UDim position) {
@@ -318,6 +1121,226 @@ public class GridEditor<T> {
         }
     }
     
+    /**
+     * Bündelung eines Threads: Tiefe der Verschachtelung und die gesammelten Positionen.
+     */
+    private static final class UpdateBatch {
+        
+        private final Set<UDim> positions = new LinkedHashSet<>();
+        private       int       depth;
+    }
+    
+    /**
+     * Ebene der aktiven Ansicht: Zellen liegen darauf, wenn ihre Position auf allen übrigen
+     * Achsen dem Schnitt entspricht. Ohne Schnitt-Angabe des {@link PositionViewMapper} liegt eine
+     * Zelle darauf, wenn der Mapper ihre Spalte und Zeile wieder auf ihre Adresse abbildet.
+     */
+    private final class ViewPlane {
+        
+        private final PositionViewMapper mapper;
+        private final int                hzAxisI;
+        private final int                vtAxisI;
+        private final int[]              slice;
+        
+        private ViewPlane(PositionViewMapper mapper) {
+            int[] slice = mapper.getSliceIndices();
+            this.mapper = mapper;
+            this.hzAxisI = mapper.getHorizontalAxisIndex();
+            this.vtAxisI = mapper.getVerticalAxisIndex();
+            this.slice = slice == null
+                         ? null
+                         : slice.clone();
+        }
+        
+        private boolean contains(UDim position) {
+            if(slice == null) {
+                long address = cellStore.address(position);
+                return address >= 0 && cellStore.address(mapper.convert(getColumn(position), getRow(position))) == address;
+            }
+            for (int axis = 0; axis < slice.length; axis++) {
+                if(axis != hzAxisI && axis != vtAxisI && position.getV(axis) != slice[axis]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private int getColumn(UDim position) {
+            return position.getV(hzAxisI);
+        }
+        
+        private int getRow(UDim position) {
+            return position.getV(vtAxisI);
+        }
+    }
+    
+    /**
+     * Belegung (Zellen mit Daten) der aktiven Ansicht. Nur Zellen auf der {@link ViewPlane Ebene}
+     * der Ansicht setzen oder löschen Einträge, Zellen anderer Ebenen mit gleicher Spalte und
+     * Zeile lassen die Belegung unverändert. Überzählige Einträge sind unschädlich, Abfragen
+     * lösen jede Stelle über {@link #getViewCell(int, int)} auf.
+     */
+    private final class ViewRegion {
+        
+        private final ViewPlane       plane;
+        private final CellRegionIndex index;
+        
+        private ViewRegion(PositionViewMapper mapper, CellConfig config) {
+            this.plane = new ViewPlane(mapper);
+            this.index = new CellRegionIndex(config.getColumnCount(), config.getRowCount());
+        }
+        
+        private void update(UDim position, boolean add) {
+            if(!plane.contains(position)) {
+                return;
+            }
+            if(add) {
+                index.add(plane.getColumn(position), plane.getRow(position));
+            } else {
+                index.remove(plane.getColumn(position), plane.getRow(position));
+            }
+        }
+    }
+    
+    /**
+     * Basisadresse und Schrittweiten eines Schnitts durch den Zellspeicher.
+     */
+    private final class SliceAddress {
+        
+        private final long base;
+        private final long columnStride;
+        private final long rowStride;
+        
+        private SliceAddress(int[] slice, PositionViewMapper mapper) {
+            int  hzAxisI = mapper.getHorizontalAxisIndex();
+            int  vtAxisI = mapper.getVerticalAxisIndex();
+            long address = 0;
+            for (int axis = 0; axis < slice.length; axis++) {
+                if(axis != hzAxisI && axis != vtAxisI) {
+                    address += slice[axis] * cellStore.getStride(axis);
+                }
+            }
+            this.base = address;
+            this.columnStride = cellStore.getStride(hzAxisI);
+            this.rowStride = cellStore.getStride(vtAxisI);
+        }
+    }
+    
+    /**
+     * Sicht auf den Zellspeicher für die {@link CollectionSearchEngine}s: Ein Durchlauf kopiert
+     * jeweils nur die nächste belegte Kachel unter ihrer Sperre, so dass gleichzeitig erzeugte
+     * Zellen die Suche nicht stören und keine zweite Zellliste geführt werden muss.
+     */
+    private static final class StoredCells<T> extends AbstractCollection<CellModel<T>> {
+        
+        private final TiledCellStore<T> store;
+        
+        private StoredCells(TiledCellStore<T> store) {
+            this.store = store;
+        }
+        
+        @Override
+        public Iterator<CellModel<T>> iterator() {
+            return new Iterator<CellModel<T>>() {
+                
+                private final List<CellModel<T>> tile = new ArrayList<>();
+                private       int                tileIndex;
+                private       int                next;
+                
+                @Override
+                public boolean hasNext() {
+                    while (next >= tile.size() && tileIndex < store.getTileSlots()) {
+                        tile.clear();
+                        next = 0;
+                        store.collectTile(tileIndex++, tile);
+                    }
+                    return next < tile.size();
+                }
+                
+                @Override
+                public CellModel<T> next() {
+                    if(!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return tile.get(next++);
+                }
+            };
+        }
+        
+        @Override
+        public int size() {
+            return store.size();
+        }
+    }
+    
+    /**
+     * Geordnete Positionen eines Schnitts. Eine Position wird erst beim Zugriff erzeugt und
+     * spiegelt den aktuellen Schnitt des Mappers.
+     */
+    private static final class SliceProjection extends AbstractList<UDim> implements RandomAccess {
+        
+        private final PositionViewMapper mapper;
+        private final int                columnCount;
+        private final int                rowCount;
+        
+        private SliceProjection(PositionViewMapper mapper, int columnCount, int rowCount) {
+            this.mapper = mapper;
+            this.columnCount = columnCount;
+            this.rowCount = rowCount;
+        }
+        
+        @Override
+        public UDim get(int index) {
+            if(index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            boolean xThenY = mapper.getIterationMode() != PositionViewMapper.IterationMode.Y_THEN_X;
+            int     evens  = xThenY ? columnCount : rowCount;
+            int     odds   = xThenY ? rowCount : columnCount;
+            int     even   = index % evens;
+            int     odd    = index / evens;
+            if(mapper.iterateReversedHorizontal()) {
+                even = evens - 1 - even;
+            }
+            if(mapper.iterateReversedVertical()) {
+                odd = odds - 1 - odd;
+            }
+            return xThenY
+                   ? mapper.convert(even, odd)
+                   : mapper.convert(odd, even);
+        }
+        
+        @Override
+        public int size() {
+            return columnCount * rowCount;
+        }
+    }
+    
+    public static final class ChangeCellArgs<T> {
+        
+        private final UDim position;
+        private final T    oldData;
+        private final T    newData;
+        
+        private ChangeCellArgs(UDim position, T oldData, T newData) {
+            this.position = position;
+            this.oldData = oldData;
+            this.newData = newData;
+        }
+        
+        public UDim getPosition() {
+            return position;
+        }
+        
+        public T getOldData() {
+            return oldData;
+        }
+        
+        public T getNewData() {
+            return newData;
+        }
+    }
+    
     public static final class CellConfig {
         
         private final float     aspectRatio;
@@ -0,0 +1,531 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.UDim;
+import mysamples.grid.v1.model.ValueCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Fortlaufendes Änderungsprotokoll (Write-Ahead-Journal) eines {@link GridEditor} für die
+ * Wiederherstellung nach einem Absturz. Jede Datenänderung wird mit Position, neuem Wert und
+ * Zeitstempel an das aktuelle Segment angehängt. Der ändernde Thread kodiert den Datensatz nur
+ * und reiht ihn ein; ein Schreib-Thread schreibt alle bis dahin eingereihten Datensätze gemeinsam
+ * und synchronisiert sie mit einem einzigen {@link FileChannel#force(boolean)} (Group Commit).
+ * {@link #commit()} meldet, wann alle bisherigen Änderungen dauerhaft gesichert sind.
+ * <p>
+ * Verzeichnis: {@code snapshot-<n>.grid} ({@link GridSnapshot}) enthält den Stand aller Segmente
+ * vor {@code journal-<n>.log}. {@link #open(GridEditor, Path, ValueCodec, PositionFactory)} stellt
+ * den jüngsten Snapshot wieder her und spielt die folgenden Segmente in Reihenfolge ab, ein beim
+ * Absturz abgeschnittener Datensatz beendet das Abspielen seines Segments. Nach
+ * {@link #DEFAULT_COMPACT_SEGMENTS} abgeschlossenen Segmenten fasst ein Hintergrund-Thread den
+ * Stand in einen neuen Snapshot zusammen und löscht die überholten Dateien.
+ * <p>
+ * Datensatz: Länge, CRC32, Zeitstempel, lineare Adresse wie im {@link GridSnapshot} und Wert
+ * (Länge, {@code -1} für {@code null}, und Bytes). Das Entfernen von Zellen wird nicht
+ * protokolliert. Massenübernahmen ({@link GridEditor#addCells(java.util.Collection)},
+ * {@link GridBulkLoader}) werden nicht je Zelle protokolliert, sondern anschließend durch eine
+ * Zusammenfassung gesichert.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class GridJournal<T> implements AutoCloseable {
+    
+    public static final long DEFAULT_SEGMENT_SIZE     = 64L << 20;
+    public static final int  DEFAULT_COMPACT_SEGMENTS = 4;
+    
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".grid";
+    private static final String SEGMENT_PREFIX  = "journal-";
+    private static final String SEGMENT_SUFFIX  = ".log";
+    private static final int    RECORD_HEADER   = 2 * Integer.BYTES;
+    private static final int    RECORD_FIXED    = 2 * Long.BYTES + Integer.BYTES;
+    private static final int    BUFFER_SIZE     = 1 << 20;
+    private static final Object END             = new Object();
+    
+    private final    GridEditor<T>           editor;
+    private final    Path                    directory;
+    private final    ValueCodec<T>           codec;
+    private final    long[]                  strides;
+    private final    long                    segmentSize;
+    private final    int                     compactSegments;
+    private final    BlockingQueue<Object>   queue;
+    private final    Thread                  appender;
+    private final    ExecutorService         compactor;
+    private          CompletableFuture<Void> compaction;
+    // erneute Zusammenfassung, angefordert während compaction lief
+    private          CompletableFuture<Void> rerun;
+    private volatile Throwable               failure;
+    private volatile boolean                 closed;
+    // nur im Schreib-Thread
+    private          FileChannel             channel;
+    private          long                    segment;
+    private          int                     closedSegments;
+    private final    ByteBuffer              buffer;
+    private final    CRC32                   crc;
+    
+    private GridJournal(GridEditor<T> editor, Path directory, ValueCodec<T> codec, long[] strides, long segment,
+                        long segmentSize, int compactSegments) throws IOException {
+        this.editor = editor;
+        this.directory = directory;
+        this.codec = codec;
+        this.strides = strides;
+        this.segmentSize = segmentSize;
+        this.compactSegments = compactSegments;
+        this.queue = new LinkedBlockingQueue<>();
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.crc = new CRC32();
+        this.segment = segment;
+        this.channel = openSegment(segment);
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GridEditor-JournalCompactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.appender = new Thread(this::drain, "GridEditor-Journal");
+        this.appender.setDaemon(true);
+        this.appender.start();
+    }
+    
+    public static <T> GridJournal<T> open(GridEditor<T> editor, Path directory, ValueCodec<T> codec, PositionFactory factory) throws IOException {
+        return open(editor, directory, codec, factory, DEFAULT_SEGMENT_SIZE, DEFAULT_COMPACT_SEGMENTS);
+    }
+    
+    /**
+     * Stellt den Editor aus dem jüngsten Snapshot und den folgenden Segmenten wieder her und
+     * protokolliert ab dann alle Datenänderungen in einem neuen Segment. Die Segmente werden
+     * gebündelt abgespielt, die aktive Ansicht erhält eine einzige Aktualisierung.
+     *
+     * @param factory         erzeugt die Koordinaten der gelesenen Zellen
+     * @param segmentSize     Größe, ab der ein neues Segment begonnen wird
+     * @param compactSegments Anzahl abgeschlossener Segmente, ab der zusammengefasst wird
+     */
+    public static <T> GridJournal<T> open(GridEditor<T> editor, Path directory, ValueCodec<T> codec, PositionFactory factory,
+                                          long segmentSize, int compactSegments) throws IOException {
+        if(segmentSize <= 0 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size out of range: " + segmentSize);
+        }
+        if(editor.getJournal() != null) {
+            throw new IllegalStateException("Editor already has a journal!");
+        }
+        Files.createDirectories(directory);
+        long       snapshot = -1;
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                snapshot = Math.max(snapshot, sequence(file, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX));
+                long segment = sequence(file, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+                if(segment >= 0) {
+                    segments.add(segment);
+                }
+            }
+        }
+        Collections.sort(segments);
+        
+        int[]  dimensions = GridSnapshot.dimensions(editor.getDimensions());
+        long[] strides    = GridSnapshot.strides(dimensions);
+        if(snapshot >= 0) {
+            GridSnapshot.open(snapshotFile(directory, snapshot), codec, factory).restore(editor);
+        }
+        long last = snapshot;
+        editor.beginUpdate();
+        try {
+            for (long segment : segments) {
+                if(segment >= snapshot) {
+                    replay(editor, segmentFile(directory, segment), codec, dimensions, strides, factory);
+                }
+                last = Math.max(last, segment);
+            }
+        } finally {
+            editor.endUpdate();
+        }
+        
+        GridJournal<T> journal = new GridJournal<>(editor, directory, codec, strides, last + 1, segmentSize, compactSegments);
+        editor.setJournal(journal);
+        return journal;
+    }
+    
+    private static <T> void replay(GridEditor<T> editor, Path file, ValueCodec<T> codec, int[] dimensions, long[] strides,
+                                   PositionFactory factory) throws IOException {
+        ByteBuffer source;
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            source = channel.map(READ_ONLY, 0, channel.size());
+        }
+        CRC32 crc = new CRC32();
+        while (source.remaining() >= RECORD_HEADER) {
+            int length   = source.getInt();
+            int checksum = source.getInt();
+            if(length < RECORD_FIXED || length > source.remaining()) {
+                // beim Absturz abgeschnitten
+                return;
+            }
+            ByteBuffer record = source.slice();
+            record.limit(length);
+            crc.reset();
+            crc.update(record.duplicate());
+            if((int) crc.getValue() != checksum) {
+                return;
+            }
+            source.position(source.position() + length);
+            
+            record.getLong(); // Zeitstempel
+            long address = record.getLong();
+            int  size    = record.getInt();
+            editor.setData(GridSnapshot.position(address, dimensions, strides, factory),
+                           size < 0
+                           ? null
+                           : codec.read(record, size));
+        }
+    }
+    
+    /**
+     * Kodiert die Änderung und reiht sie zum Schreiben ein, ohne zu blockieren. Aufgerufen vom
+     * ändernden Thread.
+     */
+    void append(UDim position, T data) {
+        int        size   = data == null
+                            ? -1
+                            : codec.sizeOf(data);
+        int        length = RECORD_FIXED + Math.max(size, 0);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + length);
+        record.position(RECORD_HEADER);
+        record.putLong(System.currentTimeMillis());
+        record.putLong(GridSnapshot.address(position, strides));
+        record.putInt(size);
+        if(data != null) {
+            codec.write(data, record);
+        }
+        if(record.hasRemaining()) {
+            throw new IllegalStateException("Codec wrote " + (record.position() - RECORD_HEADER - RECORD_FIXED) + " bytes, announced " + size + " for " + data);
+        }
+        // die Prüfsumme bildet der Schreib-Thread
+        record.putInt(0, length);
+        queue.add(record.array());
+    }
+    
+    /**
+     * @return wird erfüllt, sobald alle bis jetzt protokollierten Änderungen dauerhaft
+     * geschrieben sind und eine laufende oder angeforderte Zusammenfassung abgeschlossen ist
+     * (sie sichert die nicht je Zelle protokollierten Massenübernahmen), bzw. mit dem Fehler
+     * des Schreib-Threads oder der Zusammenfassung
+     */
+    public CompletableFuture<Void> commit() {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        enqueue(done, done);
+        CompletableFuture<Void> pending = getPendingCompaction();
+        return pending == null
+               ? done
+               : CompletableFuture.allOf(done, pending);
+    }
+    
+    /**
+     * Fasst das Journal im Hintergrund in einen neuen Snapshot zusammen: beginnt ein neues
+     * Segment, schreibt den aktuellen Stand des Editors als Snapshot und löscht ältere Segmente
+     * und Snapshots. Läuft bereits eine Zusammenfassung, hat diese ihren Stand womöglich schon
+     * erfasst; es wird dann eine weitere angefordert, die nach ihr startet, und diese geliefert.
+     */
+    public synchronized CompletableFuture<Void> compact() {
+        if(closed) {
+            CompletableFuture<Void> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new IllegalStateException("Journal already closed!"));
+            return rejected;
+        }
+        if(compaction != null && !compaction.isDone()) {
+            if(rerun == null) {
+                rerun = new CompletableFuture<>();
+            }
+            return rerun;
+        }
+        return startCompaction();
+    }
+    
+    private synchronized CompletableFuture<Void> startCompaction() {
+        CompletableFuture<Void> started = CompletableFuture.runAsync(() -> {
+            try {
+                writeCompaction();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, compactor);
+        compaction = started;
+        started.whenComplete((ignored, e) -> onCompacted());
+        return started;
+    }
+    
+    /**
+     * Startet die während der Zusammenfassung angeforderte Wiederholung.
+     */
+    private synchronized void onCompacted() {
+        CompletableFuture<Void> next = rerun;
+        if(next == null || (compaction != null && !compaction.isDone())) {
+            return;
+        }
+        rerun = null;
+        if(closed) {
+            next.completeExceptionally(new IllegalStateException("Journal already closed!"));
+            return;
+        }
+        startCompaction().whenComplete((ignored, e) -> {
+            if(e == null) {
+                next.complete(null);
+            } else {
+                next.completeExceptionally(e);
+            }
+        });
+    }
+    
+    private synchronized CompletableFuture<Void> getPendingCompaction() {
+        if(rerun != null) {
+            return rerun;
+        }
+        return compaction != null && !compaction.isDone()
+               ? compaction
+               : null;
+    }
+    
+    /**
+     * Wartet auf laufende und angeforderte Zusammenfassungen, beendet danach das Protokollieren
+     * und schreibt alle eingereihten Änderungen.
+     *
+     * @throws IllegalStateException falls das Schreiben fehlgeschlagen ist
+     */
+    @Override
+    public void close() {
+        CompletableFuture<Void> pending;
+        while ((pending = getPendingCompaction()) != null) {
+            try {
+                pending.join();
+            } catch (CompletionException | CancellationException e) {
+                // Fehler der Zusammenfassung betreffen nur den Snapshot, das Journal bleibt gültig
+            }
+        }
+        synchronized (this) {
+            if(closed) {
+                return;
+            }
+            closed = true;
+            editor.setJournal(null);
+            queue.add(END);
+        }
+        boolean interrupted = false;
+        while (appender.isAlive()) {
+            try {
+                appender.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        compactor.shutdown();
+        while (!compactor.isTerminated()) {
+            try {
+                compactor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if(interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if(failure != null) {
+            throw new IllegalStateException("Journal failed!", failure);
+        }
+    }
+    
+    private void writeCompaction() throws IOException {
+        Roll roll = new Roll();
+        enqueue(roll, roll.done);
+        // der Snapshot enthält mindestens den Stand aller Segmente vor dem neuen, dessen
+        // Datensätze beim Abspielen nur erneut gesetzt werden
+        long first  = roll.done.join();
+        Path target = snapshotFile(directory, first);
+        Path temp   = target.resolveSibling(target.getFileName() + ".tmp");
+        GridSnapshot.write(editor, temp, codec);
+        Files.move(temp, target, ATOMIC_MOVE);
+        
+        List<Path> obsolete = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                long snapshot = sequence(file, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+                long segment  = sequence(file, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+                if((snapshot >= 0 && snapshot < first) || (segment >= 0 && segment < first)) {
+                    obsolete.add(file);
+                }
+            }
+        }
+        for (Path file : obsolete) {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    private synchronized void enqueue(Object item, CompletableFuture<?> done) {
+        if(closed) {
+            done.completeExceptionally(new IllegalStateException("Journal already closed!"));
+        } else {
+            queue.add(item);
+        }
+    }
+    
+    private void drain() {
+        List<Object>                  batch   = new ArrayList<>();
+        List<CompletableFuture<Void>> commits = new ArrayList<>();
+        List<Roll>                    rolls   = new ArrayList<>();
+        boolean                       end     = false;
+        while (!end) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch);
+            try {
+                boolean written = false;
+                for (Object item : batch) {
+                    if(item instanceof byte[]) {
+                        if(failure == null) {
+                            write((byte[]) item);
+                            written = true;
+                        }
+                    } else if(item instanceof Roll) {
+                        rolls.add((Roll) item);
+                    } else if(item == END) {
+                        end = true;
+                    } else {
+                        //noinspection unchecked
+                        commits.add((CompletableFuture<Void>) item);
+                    }
+                }
+                if(failure == null) {
+                    if(written || !commits.isEmpty() || end) {
+                        flush();
+                        // ein force() für alle Datensätze des Durchlaufs
+                        channel.force(false);
+                    }
+                    if(!rolls.isEmpty()) {
+                        closedSegments = 0;
+                        roll();
+                    } else if(channel.position() >= segmentSize) {
+                        roll();
+                        if(++closedSegments >= compactSegments) {
+                            closedSegments = 0;
+                            compact();
+                        }
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            }
+            Throwable failure = this.failure;
+            for (CompletableFuture<Void> commit : commits) {
+                if(failure == null) {
+                    commit.complete(null);
+                } else {
+                    commit.completeExceptionally(failure);
+                }
+            }
+            for (Roll roll : rolls) {
+                if(failure == null) {
+                    roll.done.complete(segment);
+                } else {
+                    roll.done.completeExceptionally(failure);
+                }
+            }
+            batch.clear();
+            commits.clear();
+            rolls.clear();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            if(failure == null) {
+                failure = e;
+            }
+        }
+    }
+    
+    private void write(byte[] record) throws IOException {
+        crc.reset();
+        crc.update(record, RECORD_HEADER, record.length - RECORD_HEADER);
+        ByteBuffer.wrap(record).putInt(Integer.BYTES, (int) crc.getValue());
+        if(record.length > buffer.remaining()) {
+            flush();
+            if(record.length > buffer.capacity()) {
+                ByteBuffer source = ByteBuffer.wrap(record);
+                while (source.hasRemaining()) {
+                    channel.write(source);
+                }
+                return;
+            }
+        }
+        buffer.put(record);
+    }
+    
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    private void roll() throws IOException {
+        channel.close();
+        segment++;
+        channel = openSegment(segment);
+    }
+    
+    private FileChannel openSegment(long segment) throws IOException {
+        return FileChannel.open(segmentFile(directory, segment), CREATE_NEW, WRITE);
+    }
+    
+    private static Path snapshotFile(Path directory, long snapshot) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, snapshot, SNAPSHOT_SUFFIX));
+    }
+    
+    private static Path segmentFile(Path directory, long segment) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+    
+    /**
+     * @return die Nummer aus dem Dateinamen oder {@code -1}, falls er nicht dem Muster entspricht
+     */
+    private static long sequence(Path file, String prefix, String suffix) {
+        String name = file.getFileName().toString();
+        if(!name.startsWith(prefix) || !name.endsWith(suffix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Anforderung eines neuen Segments für die Zusammenfassung, erfüllt mit dessen Nummer.
+     */
+    private static final class Roll {
+        
+        private final CompletableFuture<Long> done = new CompletableFuture<>();
+    }
+}
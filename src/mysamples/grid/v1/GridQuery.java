@@ -0,0 +1,68 @@
+package mysamples.grid.v1;
+
+import mysamples.grid.v1.model.CellModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Eine Suche über alle erzeugten Zellen, die kachelweise im {@link TiledCellStore} läuft.
+ * Treffer einer Kachel werden sofort als Teilergebnis gemeldet, das Gesamtergebnis liefert
+ * {@link #getResult()}. Wird das Ergebnis abgebrochen ({@link CompletableFuture#cancel(boolean)}),
+ * endet die Suche vor der nächsten Kachel.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class GridQuery<T> implements Runnable {
+    
+    private final TiledCellStore<T>                     cellStore;
+    private final Predicate<? super CellModel<T>>       filter;
+    private final Consumer<? super List<CellModel<T>>>  partialResults;
+    private final CompletableFuture<List<CellModel<T>>> result;
+    
+    /**
+     * @param partialResults erhält die Treffer je Kachel im Such-Thread, darf {@code null} sein
+     */
+    public GridQuery(TiledCellStore<T> cellStore, Predicate<? super CellModel<T>> filter, Consumer<? super List<CellModel<T>>> partialResults) {
+        this.cellStore = cellStore;
+        this.filter = filter;
+        this.partialResults = partialResults;
+        this.result = new CompletableFuture<>();
+    }
+    
+    public CompletableFuture<List<CellModel<T>>> getResult() {
+        return result;
+    }
+    
+    @Override
+    public void run() {
+        try {
+            List<CellModel<T>> found  = new ArrayList<>();
+            List<CellModel<T>> buffer = new ArrayList<>();
+            for (int i = 0; i < cellStore.getTileSlots(); i++) {
+                if(result.isDone()) {
+                    // abgebrochen, z.B. durch eine neue Eingabe
+                    return;
+                }
+                cellStore.collectTile(i, buffer);
+                int from = found.size();
+                for (CellModel<T> cell : buffer) {
+                    if(filter.test(cell)) {
+                        found.add(cell);
+                    }
+                }
+                buffer.clear();
+                if(partialResults != null && found.size() > from) {
+                    partialResults.accept(Collections.unmodifiableList(new ArrayList<>(found.subList(from, found.size()))));
+                }
+            }
+            result.complete(found);
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,508 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.UDim;
+import mysamples.grid.v1.impl.SliceViewMapper;
+import mysamples.grid.v1.model.CellModel;
+import mysamples.grid.v1.model.ValueCodec;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Binärer Snapshot eines {@link GridEditor}: Dimensionen, registrierte Ansichten und alle
+ * erzeugten Zellen. Geschrieben und gelesen wird über per {@link FileChannel#map} eingeblendete
+ * Bereiche, die Zelldaten kodiert ein {@link ValueCodec}.
+ * <p>
+ * Aufbau: Kopf (Kennung, Version, Kopfgröße, Dimensionen, Ansichten, Zellanzahl), danach
+ * die aufsteigend sortierten linearen Adressen der Zellen ({@code long}), die Versätze ihrer
+ * Daten ({@code int}) und die Daten selbst (Länge, {@code -1} für {@code null}, und Bytes).
+ * <p>
+ * {@link #open(Path, ValueCodec, PositionFactory)} blendet die Datei nur ein, einzelne Zellen
+ * lassen sich mit {@link #get(UDim)} per binärer Suche lesen, ohne den Snapshot zu laden.
+ * {@link #restore(GridEditor)} übernimmt alle Zellen als Ganzes über
+ * {@link GridEditor#addCells(java.util.Collection)}.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class GridSnapshot<T> {
+    
+    public static final int MAGIC   = 0x53475244;
+    public static final int VERSION = 1;
+    
+    private static final int FLAG_REVERSED_H = 1;
+    private static final int FLAG_REVERSED_V = 1 << 1;
+    private static final int FLAG_SLICE      = 1 << 2;
+    private static final int FLAG_MIN_SIZE   = 1 << 3;
+    
+    private final ValueCodec<T>   codec;
+    private final PositionFactory factory;
+    private final int[]           dimensions;
+    private final long[]          strides;
+    private final List<ViewInfo>  views;
+    private final int             cellCount;
+    private final LongBuffer      addresses;
+    private final IntBuffer       offsets;
+    private final ByteBuffer      values;
+    
+    private GridSnapshot(ValueCodec<T> codec, PositionFactory factory, int[] dimensions, List<ViewInfo> views, int cellCount,
+                         LongBuffer addresses, IntBuffer offsets, ByteBuffer values) {
+        this.codec = codec;
+        this.factory = factory;
+        this.dimensions = dimensions;
+        this.strides = strides(dimensions);
+        this.views = Collections.unmodifiableList(views);
+        this.cellCount = cellCount;
+        this.addresses = addresses;
+        this.offsets = offsets;
+        this.values = values;
+    }
+    
+    /**
+     * Schreibt den aktuellen Stand des Editors. Die Zellen werden einmalig in Adressreihenfolge
+     * erfasst. Mit eingeschalteter Versionierung ({@link GridEditor#setVersioningEnabled(boolean)})
+     * wird eine {@link GridVersion} geschrieben, der Stand ist dann über alle Zellen konsistent,
+     * sonst sind parallele Schreibzugriffe je Kachel konsistent enthalten.
+     */
+    public static <T> void write(GridEditor<T> editor, Path file, ValueCodec<T> codec) throws IOException {
+        int[]  dimensions = dimensions(editor.getDimensions());
+        long[] strides    = strides(dimensions);
+        
+        List<UDim> positions = new ArrayList<>(editor.getCellCount());
+        List<T>    data      = new ArrayList<>(editor.getCellCount());
+        if(editor.isVersioningEnabled()) {
+            for (GridVersion.Entry<T> entry : editor.snapshot()) {
+                positions.add(entry.getPosition());
+                data.add(entry.getData());
+            }
+        } else {
+            editor.forEachCell(cell -> {
+                positions.add(cell.getPosition());
+                data.add(cell.getData());
+            });
+        }
+        int   count      = positions.size();
+        int[] sizes      = new int[count];
+        long  valuesSize = 0;
+        for (int i = 0; i < count; i++) {
+            T value = data.get(i);
+            sizes[i] = value == null
+                       ? 0
+                       : codec.sizeOf(value);
+            valuesSize += Integer.BYTES + sizes[i];
+        }
+        if(valuesSize > Integer.MAX_VALUE || (long) count * Long.BYTES > Integer.MAX_VALUE) {
+            throw new IOException("Grid too large for a snapshot: " + count + " cells, " + valuesSize + " bytes of data");
+        }
+        
+        List<Map.Entry<Integer, PositionViewMapper>> views = new ArrayList<>(editor.getViews().entrySet());
+        int  headerSize   = (int) align(headerSize(dimensions.length, views.size()));
+        long addressesPos = headerSize;
+        long offsetsPos   = addressesPos + (long) count * Long.BYTES;
+        long valuesPos    = offsetsPos + align((long) count * Integer.BYTES);
+        
+        try (FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE, TRUNCATE_EXISTING)) {
+            MappedByteBuffer header = channel.map(READ_WRITE, 0, headerSize);
+            header.putInt(MAGIC).putInt(VERSION).putInt(headerSize);
+            header.putInt(dimensions.length);
+            for (int dimension : dimensions) {
+                header.putInt(dimension);
+            }
+            header.putInt(views.size());
+            for (Map.Entry<Integer, PositionViewMapper> view : views) {
+                writeView(header, view.getKey(), view.getValue(), dimensions.length);
+            }
+            header.putInt(count);
+            header.putLong(valuesSize);
+            
+            MappedByteBuffer addressBuffer = channel.map(READ_WRITE, addressesPos, (long) count * Long.BYTES);
+            MappedByteBuffer offsetBuffer  = channel.map(READ_WRITE, offsetsPos, (long) count * Integer.BYTES);
+            MappedByteBuffer valueBuffer   = channel.map(READ_WRITE, valuesPos, valuesSize);
+            for (int i = 0; i < count; i++) {
+                addressBuffer.putLong(address(positions.get(i), strides));
+                offsetBuffer.putInt(valueBuffer.position());
+                T value = data.get(i);
+                if(value == null) {
+                    valueBuffer.putInt(-1);
+                    continue;
+                }
+                valueBuffer.putInt(sizes[i]);
+                int start = valueBuffer.position();
+                codec.write(value, valueBuffer);
+                if(valueBuffer.position() - start != sizes[i]) {
+                    throw new IllegalStateException("Codec wrote " + (valueBuffer.position() - start) + " bytes, announced " + sizes[i] + " for " + value);
+                }
+            }
+            header.force();
+            addressBuffer.force();
+            offsetBuffer.force();
+            valueBuffer.force();
+        }
+    }
+    
+    /**
+     * Blendet den Snapshot ein, ohne Zellen zu lesen. Die Einblendung bleibt nach dem Schließen
+     * des Kanals gültig.
+     *
+     * @param factory erzeugt die Koordinaten der gelesenen Zellen
+     */
+    public static <T> GridSnapshot<T> open(Path file, ValueCodec<T> codec, PositionFactory factory) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            long fileSize = channel.size();
+            if(fileSize < 3 * Integer.BYTES) {
+                throw new IOException("No grid snapshot: " + file);
+            }
+            ByteBuffer prefix = channel.map(READ_ONLY, 0, 3 * Integer.BYTES);
+            if(prefix.getInt() != MAGIC) {
+                throw new IOException("No grid snapshot: " + file);
+            }
+            int version = prefix.getInt();
+            if(version != VERSION) {
+                throw new IOException("Unsupported grid snapshot version " + version + ": " + file);
+            }
+            int headerSize = prefix.getInt();
+            if(headerSize < headerSize(0, 0) || headerSize > fileSize) {
+                throw new IOException("Corrupt grid snapshot, header size " + headerSize + " of " + fileSize + " bytes: " + file);
+            }
+            
+            ByteBuffer     header = channel.map(READ_ONLY, 0, headerSize);
+            int[]          dimensions;
+            List<ViewInfo> views;
+            int            count;
+            long           valuesSize;
+            try {
+                header.position(3 * Integer.BYTES);
+                int dimensionCount = header.getInt();
+                if(dimensionCount < 2 || dimensionCount > header.remaining() / Integer.BYTES) {
+                    throw new IOException("Corrupt grid snapshot, " + dimensionCount + " dimensions: " + file);
+                }
+                dimensions = new int[dimensionCount];
+                for (int i = 0; i < dimensions.length; i++) {
+                    dimensions[i] = header.getInt();
+                    if(dimensions[i] <= 0) {
+                        throw new IOException("Corrupt grid snapshot, dimension " + i + " of size " + dimensions[i] + ": " + file);
+                    }
+                }
+                int viewCount = header.getInt();
+                if(viewCount < 0 || align(headerSize(dimensionCount, viewCount)) != headerSize) {
+                    throw new IOException("Corrupt grid snapshot, " + viewCount + " views in a header of " + headerSize + " bytes: " + file);
+                }
+                views = new ArrayList<>(viewCount);
+                for (int i = 0; i < viewCount; i++) {
+                    views.add(readView(header, dimensions.length));
+                }
+                count = header.getInt();
+                valuesSize = header.getLong();
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IOException("Corrupt grid snapshot header: " + file, e);
+            }
+            
+            long offsetsPos = headerSize + (long) count * Long.BYTES;
+            long valuesPos  = offsetsPos + align((long) count * Integer.BYTES);
+            if(count < 0 || valuesSize < 0 || valuesSize > Integer.MAX_VALUE || valuesPos + valuesSize > fileSize) {
+                throw new IOException("Corrupt grid snapshot, " + count + " cells with " + valuesSize + " value bytes exceed "
+                                      + fileSize + " bytes: " + file);
+            }
+            return new GridSnapshot<>(codec, factory, dimensions, views, count,
+                                      channel.map(READ_ONLY, headerSize, (long) count * Long.BYTES).asLongBuffer(),
+                                      channel.map(READ_ONLY, offsetsPos, (long) count * Integer.BYTES).asIntBuffer(),
+                                      channel.map(READ_ONLY, valuesPos, valuesSize));
+        }
+    }
+    
+    public int[] getDimensions() {
+        return dimensions.clone();
+    }
+    
+    public List<ViewInfo> getViews() {
+        return views;
+    }
+    
+    public int getCellCount() {
+        return cellCount;
+    }
+    
+    public UDim getPosition(int cellIndex) {
+        return position(addresses.get(cellIndex), dimensions, strides, factory);
+    }
+    
+    public T getData(int cellIndex) {
+        ByteBuffer source = values.duplicate();
+        source.position(offsets.get(cellIndex));
+        int size = source.getInt();
+        return size < 0
+               ? null
+               : codec.read(source, size);
+    }
+    
+    /**
+     * @return der Index der Zelle im Snapshot oder {@code -1}, per binärer Suche über die Adressen
+     */
+    public int indexOf(UDim position) {
+        long address = address(position, strides);
+        int  low     = 0;
+        int  high    = cellCount - 1;
+        while (low <= high) {
+            int  middle = (low + high) >>> 1;
+            long value  = addresses.get(middle);
+            if(value < address) {
+                low = middle + 1;
+            } else if(value > address) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Liest die Daten einer einzelnen Zelle, ohne den Snapshot zu laden.
+     */
+    public T get(UDim position) {
+        int index = indexOf(position);
+        return index < 0
+               ? null
+               : getData(index);
+    }
+    
+    /**
+     * Übernimmt Ansichten und Zellen in den Editor. Ansichten, deren View-ID bereits registriert
+     * ist, bleiben unverändert, so dass eigene {@link PositionViewMapper} vorab registriert
+     * werden können. Zellen werden parallel dekodiert und als Ganzes übernommen.
+     */
+    public void restore(GridEditor<T> editor) {
+        UDim    dims    = editor.getDimensions();
+        boolean matches = dims.getDimensions() == dimensions.length;
+        for (int i = 0; matches && i < dimensions.length; i++) {
+            matches = dims.getV(i) == dimensions[i];
+        }
+        if(!matches) {
+            throw new IllegalArgumentException("Snapshot dimensions do not match the editor dimensions!");
+        }
+        for (ViewInfo view : views) {
+            if(!editor.getViews().containsKey(view.getViewID())) {
+                editor.registerView(view.getViewID(), view.createMapper(dims, factory));
+            }
+        }
+        List<CellModel<T>> cells = IntStream.range(0, cellCount)
+                                            .parallel()
+                                            .mapToObj(i -> editor.createCell(getPosition(i), getData(i)))
+                                            .collect(Collectors.toList());
+        editor.addCells(cells);
+    }
+    
+    private static void writeView(ByteBuffer target, int viewID, PositionViewMapper mapper, int dimensionCount) {
+        int[]     slice   = mapper.getSliceIndices();
+        Dimension minSize = mapper.getCellMinSize();
+        int       flags   = 0;
+        if(mapper.iterateReversedHorizontal()) {
+            flags |= FLAG_REVERSED_H;
+        }
+        if(mapper.iterateReversedVertical()) {
+            flags |= FLAG_REVERSED_V;
+        }
+        if(slice != null) {
+            flags |= FLAG_SLICE;
+        }
+        if(minSize != null) {
+            flags |= FLAG_MIN_SIZE;
+        }
+        target.putInt(viewID);
+        target.putInt(mapper.getHorizontalAxisIndex());
+        target.putInt(mapper.getVerticalAxisIndex());
+        target.put((byte) mapper.getIterationMode().ordinal());
+        target.put((byte) flags);
+        target.putFloat(mapper.getAspect());
+        target.putInt(minSize == null
+                      ? 0
+                      : minSize.width);
+        target.putInt(minSize == null
+                      ? 0
+                      : minSize.height);
+        for (int axis = 0; axis < dimensionCount; axis++) {
+            target.putInt(slice == null || axis >= slice.length
+                          ? 0
+                          : slice[axis]);
+        }
+    }
+    
+    private static ViewInfo readView(ByteBuffer source, int dimensionCount) {
+        int   viewID         = source.getInt();
+        int   horizontalAxis = source.getInt();
+        int   verticalAxis   = source.getInt();
+        int   iterationMode  = source.get();
+        int   flags          = source.get();
+        float aspect         = source.getFloat();
+        int   minWidth       = source.getInt();
+        int   minHeight      = source.getInt();
+        int[] slice          = new int[dimensionCount];
+        for (int axis = 0; axis < dimensionCount; axis++) {
+            slice[axis] = source.getInt();
+        }
+        return new ViewInfo(viewID, horizontalAxis, verticalAxis,
+                            PositionViewMapper.IterationMode.values()[iterationMode],
+                            (flags & FLAG_REVERSED_H) != 0,
+                            (flags & FLAG_REVERSED_V) != 0,
+                            aspect,
+                            (flags & FLAG_MIN_SIZE) != 0
+                            ? new Dimension(minWidth, minHeight)
+                            : null,
+                            (flags & FLAG_SLICE) != 0
+                            ? slice
+                            : null);
+    }
+    
+    private static long headerSize(int dimensionCount, int viewCount) {
+        long view = 3 * Integer.BYTES + 2 + Float.BYTES + 2 * Integer.BYTES + (long) dimensionCount * Integer.BYTES;
+        return 4 * Integer.BYTES + (long) dimensionCount * Integer.BYTES + Integer.BYTES + viewCount * view + Integer.BYTES + Long.BYTES;
+    }
+    
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+    
+    static int[] dimensions(UDim dims) {
+        int[] dimensions = new int[dims.getDimensions()];
+        for (int i = 0; i < dimensions.length; i++) {
+            dimensions[i] = dims.getV(i);
+        }
+        return dimensions;
+    }
+    
+    /**
+     * Schrittweiten wie im {@link TiledCellStore}, die Adressen sind damit identisch.
+     */
+    static long[] strides(int[] dimensions) {
+        long[] strides = new long[dimensions.length];
+        long   stride  = 1;
+        for (int i = 0; i < dimensions.length; i++) {
+            strides[i] = stride;
+            stride *= dimensions[i];
+        }
+        return strides;
+    }
+    
+    static long address(UDim position, long[] strides) {
+        long address = 0;
+        for (int i = 0; i < strides.length; i++) {
+            address += position.getV(i) * strides[i];
+        }
+        return address;
+    }
+    
+    static UDim position(long address, int[] dimensions, long[] strides, PositionFactory factory) {
+        int[] values = new int[dimensions.length];
+        for (int axis = 0; axis < dimensions.length; axis++) {
+            values[axis] = (int) (address / strides[axis] % dimensions[axis]);
+        }
+        return factory.create(values);
+    }
+    
+    /**
+     * Beschreibung einer registrierten Ansicht. Der {@link PositionViewMapper} selbst ist nicht
+     * speicherbar, wiederhergestellt wird er als {@link SliceViewMapper} mit denselben Achsen,
+     * Schnitt-Indizes und Darstellungs-Eigenschaften.
+     */
+    public static final class ViewInfo {
+        
+        private final int                              viewID;
+        private final int                              horizontalAxis;
+        private final int                              verticalAxis;
+        private final PositionViewMapper.IterationMode iterationMode;
+        private final boolean                          reversedHorizontal;
+        private final boolean                          reversedVertical;
+        private final float                            aspect;
+        private final Dimension                        cellMinSize;
+        private final int[]                            slice;
+        
+        private ViewInfo(int viewID, int horizontalAxis, int verticalAxis, PositionViewMapper.IterationMode iterationMode,
+                         boolean reversedHorizontal, boolean reversedVertical, float aspect, Dimension cellMinSize, int[] slice) {
+            this.viewID = viewID;
+            this.horizontalAxis = horizontalAxis;
+            this.verticalAxis = verticalAxis;
+            this.iterationMode = iterationMode;
+            this.reversedHorizontal = reversedHorizontal;
+            this.reversedVertical = reversedVertical;
+            this.aspect = aspect;
+            this.cellMinSize = cellMinSize;
+            this.slice = slice;
+        }
+        
+        public int getViewID() {
+            return viewID;
+        }
+        
+        public int getHorizontalAxis() {
+            return horizontalAxis;
+        }
+        
+        public int getVerticalAxis() {
+            return verticalAxis;
+        }
+        
+        /**
+         * @return die Schnitt-Indizes oder {@code null}, falls die Ansicht kein Schnitt war
+         */
+        public int[] getSlice() {
+            return slice == null
+                   ? null
+                   : slice.clone();
+        }
+        
+        public PositionViewMapper createMapper(UDim dimensions, PositionFactory factory) {
+            SliceViewMapper mapper = new SliceViewMapper(dimensions, horizontalAxis, verticalAxis, factory) {
+                @Override
+                public boolean iterateReversedHorizontal() {
+                    return reversedHorizontal;
+                }
+                
+                @Override
+                public boolean iterateReversedVertical() {
+                    return reversedVertical;
+                }
+                
+                @Override
+                public IterationMode getIterationMode() {
+                    return iterationMode;
+                }
+                
+                @Override
+                public float getAspect() {
+                    return aspect;
+                }
+                
+                @Override
+                public Dimension getCellMinSize() {
+                    return cellMinSize == null
+                           ? null
+                           : new Dimension(cellMinSize);
+                }
+            };
+            if(slice != null) {
+                for (int axis = 0; axis < slice.length; axis++) {
+                    if(axis != horizontalAxis && axis != verticalAxis) {
+                        mapper.setSliceIndex(axis, slice[axis]);
+                    }
+                }
+            }
+            return mapper;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.UDim;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Unveränderlicher Datenstand eines {@link GridEditor} zu einem Zeitpunkt, erzeugt mit
+ * {@link GridEditor#snapshot()}. Die Version teilt sich ihre Knoten mit dem
+ * {@link PersistentCellStore} und wird von späteren Änderungen nicht berührt, sie kann daher
+ * ohne Sperre aus beliebigen Threads gelesen werden, etwa für Exporte, Kennzahlen oder Suchen.
+ * Durchläufe erfolgen in Adressreihenfolge.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public final class GridVersion<T> implements Iterable<GridVersion.Entry<T>> {
+    
+    private final PersistentCellStore<T>   store;
+    private final PersistentCellStore.Node root;
+    private final int                      size;
+    private final long                     version;
+    
+    GridVersion(PersistentCellStore<T> store, PersistentCellStore.Node root, int size, long version) {
+        this.store = store;
+        this.root = root;
+        this.size = size;
+        this.version = version;
+    }
+    
+    /**
+     * @return fortlaufende Nummer der Version, spätere Versionen haben größere Nummern
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * @return Anzahl der Zellen dieser Version
+     */
+    public int size() {
+        return size;
+    }
+    
+    public boolean contains(UDim position) {
+        return getEntry(position) != null;
+    }
+    
+    /**
+     * @return die Daten der Zelle oder {@code null}, falls sie in dieser Version nicht existiert
+     */
+    public T get(UDim position) {
+        Entry<T> entry = getEntry(position);
+        return entry == null
+               ? null
+               : entry.getData();
+    }
+    
+    private Entry<T> getEntry(UDim position) {
+        long address = store.address(position);
+        //noinspection unchecked
+        return address < 0
+               ? null
+               : (Entry<T>) PersistentCellStore.find(root, store.getLevels(), address);
+    }
+    
+    public Stream<Entry<T>> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), size,
+                                                             Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE),
+                                    false);
+    }
+    
+    @Override
+    public Iterator<Entry<T>> iterator() {
+        return new EntryIterator<>(root, store.getLevels());
+    }
+    
+    /**
+     * Tiefendurchlauf über die Knoten, leere Teilbäume werden übersprungen.
+     */
+    private static final class EntryIterator<T> implements Iterator<Entry<T>> {
+        
+        private final PersistentCellStore.Node[] path;
+        private final int[]                      slots;
+        private       int                        depth;
+        private       Entry<T>                   next;
+        
+        private EntryIterator(PersistentCellStore.Node root, int levels) {
+            this.path = new PersistentCellStore.Node[levels];
+            this.slots = new int[levels];
+            this.path[0] = root;
+            this.slots[0] = -1;
+            advance();
+        }
+        
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                int slot = ++slots[depth];
+                if(slot >= PersistentCellStore.WIDTH) {
+                    depth--;
+                    continue;
+                }
+                Object child = path[depth].slots[slot];
+                if(child == null) {
+                    continue;
+                }
+                if(depth == path.length - 1) {
+                    //noinspection unchecked
+                    next = (Entry<T>) child;
+                    return;
+                }
+                depth++;
+                path[depth] = (PersistentCellStore.Node) child;
+                slots[depth] = -1;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+        
+        @Override
+        public Entry<T> next() {
+            if(next == null) {
+                throw new NoSuchElementException();
+            }
+            Entry<T> entry = next;
+            advance();
+            return entry;
+        }
+    }
+    
+    public static final class Entry<T> {
+        
+        private final UDim position;
+        private final T    data;
+        
+        Entry(UDim position, T data) {
+            this.position = position;
+            this.data = data;
+        }
+        
+        public UDim getPosition() {
+            return position;
+        }
+        
+        public T getData() {
+            return data;
+        }
+    }
+}
@@ -6,10 +6,11 @@ import mysamples.grid.v1.model.CellModel;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.Arrays;
-import java.util.Collection;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static java.lang.Math.*;
 
@@ -18,29 +19,54 @@ import static java.lang.Math.*;
  * werden. Bei der Darstellung wird Seitenverhältnis von Breite:Zeile beachtet, Minimale Zellgröße,
  * Skalierungsfaktor und die darstellbare Eltern-Container (Zeichenfläche) berücksichtigt,
  * wie auch das Streckverhalten.
+ * Im {@link RenderMode#VIRTUALIZED} werden nur die Zellen im sichtbaren Bereich
+ * (zzgl. {@link #VIRTUAL_MARGIN} Zellen Rand) als {@link CellView} erzeugt und beim
+ * Scrollen wiederverwendet. Im {@link RenderMode#STAMP} existieren keine Zell-Komponenten,
+ * die GridView zeichnet die sichtbaren Zellen selbst, indem eine einzige {@link CellView}
+ * je Zelle gebunden, gerendert und über ein {@link CellRendererPane} gestempelt wird.
  *
  * @author Bjoern Frohberg, mydata GmbH
  */
 public class GridView<T> extends JPanel {
     
-    private final GridEditor<T>            gridEditor;
-    private final Map<UDim, CellView<T>>   cells;
-    private final AspectedGridBagLayout<T> layout;
-    private       Action<CellView<T>>      cellRenderer;
-    private       StretchSideMode          stretchMode;
-    private       double                   scale;
-    private       Size2DInt32              scaleSize;
-    private       boolean                  scrollable;
+    /**
+     * Anzahl Zellen, die im virtualisierten Modus um den sichtbaren Bereich herum vorgehalten werden.
+     */
+    public static final int VIRTUAL_MARGIN = 2;
+    
+    private final GridEditor<T>             gridEditor;
+    private final Map<UDim, CellView<T>>    cells;
+    private final AspectedGridLayout<T>     layout;
+    private final Deque<CellView<T>>        recycledCells;
+    private final CellRendererPane          rendererPane;
+    private       Action<CellView<T>>       cellRenderer;
+    private       StretchSideMode           stretchMode;
+    private       RenderMode                renderMode;
+    private       GridEditor.UpdateCellArgs viewArgs;
+    private       CellView<T>[]             window;
+    private       int                       windowColumn;
+    private       int                       windowRow;
+    private       int                       windowColumns;
+    private       int                       windowRows;
+    private       CellView<T>               stampCell;
+    private       double                    scale;
+    private       Size2DInt32               scaleSize;
+    private       boolean                   scrollable;
+    private volatile double                 projectionProgress = -1;
     
     public GridView(GridEditor<T> gridEditor) {
         this.cells = new HashMap<>();
+        this.recycledCells = new ArrayDeque<>();
+        this.rendererPane = new CellRendererPane();
         this.gridEditor = gridEditor;
         this.gridEditor.addEditListener(this::onCellUpdate);
+        this.gridEditor.addCellChangeListener(this::onCellChanged);
         stretchMode = StretchSideMode.HORIZONTAL_STRETCH;
+        renderMode = RenderMode.COMPONENTS;
         scale = 1d;
         scrollable = true;
         
-        layout = new AspectedGridBagLayout<>(this);
+        layout = new AspectedGridLayout<>(this);
         setLayout(layout);
     }
     
@@ -49,6 +75,23 @@ public class GridView<T> extends JPanel {
         invalidate();
     }
     
+    /**
+     * Wechselt zwischen dem Erzeugen aller Zellen und der Virtualisierung auf den
+     * sichtbaren Bereich. Eine bereits aktive Ansicht wird neu aufgebaut.
+     */
+    public void setRenderMode(RenderMode renderMode) {
+        if(this.renderMode != renderMode) {
+            this.renderMode = renderMode;
+            if(viewArgs != null) {
+                onCellUpdate(gridEditor, viewArgs);
+            }
+        }
+    }
+    
+    public RenderMode getRenderMode() {
+        return renderMode;
+    }
+    
     public void setCellRenderer(Action<CellView<T>> cellRenderer) {
         this.cellRenderer = cellRenderer;
     }
@@ -57,70 +100,267 @@ public class GridView<T> extends JPanel {
         gridEditor.activateView(viewID);
     }
     
+    /**
+     * Aktiviert die Ansicht, ohne den EDT für die Berechnung der Projektion zu blockieren.
+     * Solange die Projektion berechnet wird, zeigt die GridView den Fortschritt als Balken
+     * am oberen Rand des sichtbaren Bereichs.
+     */
+    public CompletableFuture<Void> activateViewAsync(int viewID) {
+        projectionProgress = 0;
+        repaint();
+        return gridEditor.activateViewAsync(viewID, this::onProjectionProgress)
+                         .whenComplete((result, error) -> onProjectionProgress(-1));
+    }
+    
+    private void onProjectionProgress(double progress) {
+        // repaint() ist threadsicher und wird vom RepaintManager zusammengefasst
+        projectionProgress = progress;
+        repaint();
+    }
+    
     private void onCellUpdate(GridEditor<T> sender, GridEditor.UpdateCellArgs e) {
+        if(!SwingUtilities.isEventDispatchThread()) {
+            // Änderungen aus Schreib-Threads im EDT darstellen
+            SwingUtilities.invokeLater(() -> onCellUpdate(sender, e));
+            return;
+        }
         if(e.isReinit()) {
+            PositionViewMapper previous = viewArgs == null
+                                          ? null
+                                          : viewArgs.getMapper();
+            viewArgs = e;
             cells.clear();
-            removeAll();
-            
-            Dimension cellMinSize = e.getConfig().getCellMinSize();
-            if(cellMinSize == null) {
-                cellMinSize = new Dimension(0, 0);
-            }
-            
-            layout.columnWidths = new int[e.getConfig().getColumnCount() + 1];
-            layout.columnWeights = new double[e.getConfig().getColumnCount() + 1];
-            Arrays.fill(layout.columnWeights, e.getConfig().getAspectRatio());
-            Arrays.fill(layout.columnWidths, (int) round(cellMinSize.width * e.getConfig().getScale()));
-            if(stretchMode == StretchSideMode.VERTICAL_STRETCH) {
-                layout.columnWeights[layout.columnWeights.length - 1] = 1;
+            if(previous == e.getMapper()) {
+                // gleiche Ansicht (z.B. verschobener Schnitt): sichtbare Zellen wiederverwenden
+                recycleWindow();
             } else {
-                layout.columnWeights[layout.columnWeights.length - 1] = 0;
+                recycledCells.clear();
+                stampCell = null;
             }
-            
-            layout.rowHeights = new int[e.getConfig().getRowCount() + 1];
-            layout.rowWeights = new double[e.getConfig().getRowCount() + 1];
-            Arrays.fill(layout.rowWeights, 1 / e.getConfig().getAspectRatio());
-            Arrays.fill(layout.rowHeights, (int) round(cellMinSize.height * e.getConfig().getScale()));
-            if(stretchMode == StretchSideMode.HORIZONTAL_STRETCH) {
-                layout.rowWeights[layout.rowWeights.length - 1] = 1;
+            window = null;
+            removeAll();
+        }
+        
+        if(e.isReinit() && renderMode != RenderMode.COMPONENTS) {
+            // nur der sichtbare Bereich wird über Spalte und Zeile aufgelöst, unabhängig von der Zellanzahl
+            if(renderMode == RenderMode.STAMP) {
+                add(rendererPane);
             } else {
-                layout.rowWeights[layout.rowWeights.length - 1] = 0;
+                updateVirtualCells();
             }
+            revalidate();
+            repaint();
+            return;
         }
         
+        // ein linearer Durchlauf: Index über den Zähler, Model über den Positions-Index
+        int index = 0;
         for (UDim coordinate : e.getViewCells()) {
             if(e.isReinit()) {
-                createCell(e, coordinate, e.getViewCells().indexOf(coordinate));
+                createCell(e, coordinate, index);
             } else {
-                updateCell(e, coordinate);
+                updateCell(coordinate);
             }
+            index++;
         }
     }
     
+    /**
+     * Eine einzelne Datenänderung: nur die betroffene Zelle wird neu gerendert.
+     */
+    private void onCellChanged(GridEditor<T> sender, GridEditor.ChangeCellArgs<T> e) {
+        if(!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> onCellChanged(sender, e));
+            return;
+        }
+        updateCell(e.getPosition());
+    }
+    
     private void createCell(GridEditor.UpdateCellArgs e, UDim coordinate, int index) {
         CellView<T> view = new CellView<>(coordinate, e.getMapper(), this::getCellRenderer, index);
         cells.put(coordinate, view);
-        add(view, gbc(getColumn(e, coordinate), getRow(e, coordinate)));
-        updateCell(e, coordinate);
+        add(view);
+        view.setDataModel(gridEditor, gridEditor.getCell(coordinate));
+    }
+    
+    /**
+     * Gibt die Zellen außerhalb des sichtbaren Bereichs frei und erzeugt bzw. recycelt
+     * die fehlenden Zellen innerhalb des Bereichs. Die Zellen des Bereichs liegen zeilenweise
+     * in {@link #window}, Aufwand und Speicher richten sich nur nach dem sichtbaren Bereich.
+     *
+     * @return {@code true}, wenn sich die Menge der Zellen geändert hat
+     */
+    private boolean updateVirtualCells() {
+        Dimension childSize = layout.childSize;
+        if(renderMode != RenderMode.VIRTUALIZED || viewArgs == null
+           || childSize == null || childSize.width <= 0 || childSize.height <= 0) {
+            return false;
+        }
+        
+        int       columnCount = viewArgs.getConfig().getColumnCount();
+        int       rowCount    = viewArgs.getConfig().getRowCount();
+        Rectangle visible     = getVisibleRect();
+        int       firstColumn = max(0, visible.x / childSize.width - VIRTUAL_MARGIN);
+        int       lastColumn  = min(columnCount - 1, (visible.x + visible.width) / childSize.width + VIRTUAL_MARGIN);
+        int       firstRow    = max(0, visible.y / childSize.height - VIRTUAL_MARGIN);
+        int       lastRow     = min(rowCount - 1, (visible.y + visible.height) / childSize.height + VIRTUAL_MARGIN);
+        int       columns     = max(0, lastColumn - firstColumn + 1);
+        int       rows        = max(0, lastRow - firstRow + 1);
+        
+        if(window != null && windowColumn == firstColumn && windowRow == firstRow
+           && windowColumns == columns && windowRows == rows) {
+            return false;
+        }
+        
+        //noinspection unchecked
+        CellView<T>[] next = new CellView[columns * rows];
+        
+        // übernehmen bzw. freigeben
+        if(window != null) {
+            for (CellView<T> view : window) {
+                if(view == null) {
+                    continue;
+                }
+                int column = view.getColumn();
+                int row    = view.getRow();
+                if(column < firstColumn || column > lastColumn || row < firstRow || row > lastRow) {
+                    remove(view);
+                    recycledCells.push(view);
+                } else {
+                    next[(row - firstRow) * columns + column - firstColumn] = view;
+                }
+            }
+        }
+        
+        // erzeugen
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int slot = (row - firstRow) * columns + column - firstColumn;
+                if(next[slot] != null) {
+                    continue;
+                }
+                CellView<T> view = recycledCells.poll();
+                if(view == null) {
+                    view = new CellView<>(null, viewArgs.getMapper(), this::getCellRenderer, -1);
+                }
+                view.bind(column, row, gridEditor.getViewIndex(column, row));
+                add(view);
+                view.setBounds(column * childSize.width, row * childSize.height, childSize.width, childSize.height);
+                view.setDataModel(gridEditor, gridEditor.getViewCell(column, row));
+                next[slot] = view;
+            }
+        }
+        
+        window = next;
+        windowColumn = firstColumn;
+        windowRow = firstRow;
+        windowColumns = columns;
+        windowRows = rows;
+        return true;
     }
     
-    private void updateCell(GridEditor.UpdateCellArgs e, UDim coordinate) {
-        java.util.List<CellModel<T>> cellOne = gridEditor.getSearchEngineCells().findSync(m -> m.getPosition().equals(coordinate));
-        cells.get(coordinate).setDataModel(gridEditor, cellOne);
+    private void recycleWindow() {
+        if(window != null) {
+            for (CellView<T> view : window) {
+                if(view != null) {
+                    recycledCells.push(view);
+                }
+            }
+        }
     }
     
-    private Action<CellView<T>> getCellRenderer(CellView<T> view) {
-        return this.cellRenderer;
+    private CellView<T> getWindowCell(int column, int row) {
+        if(window == null
+           || column < windowColumn || column >= windowColumn + windowColumns
+           || row < windowRow || row >= windowRow + windowRows) {
+            return null;
+        }
+        return window[(row - windowRow) * windowColumns + column - windowColumn];
     }
     
-    private static GridBagConstraints gbc(int column, int row) {
-        return new GridBagConstraints(column, row,
-                                      1, 1,
-                                      1, 1,
-                                      GridBagConstraints.NORTHWEST,
-                                      GridBagConstraints.BOTH,
-                                      new Insets(0, 0, 0, 0),
-                                      0, 0);
+    /**
+     * Wird bei Änderung des umgebenden {@link JViewport} aufgerufen.
+     */
+    void onViewportChanged() {
+        if(updateVirtualCells()) {
+            revalidate();
+            repaint();
+        }
+    }
+    
+    private void updateCell(UDim coordinate) {
+        if(renderMode != RenderMode.COMPONENTS) {
+            if(viewArgs != null) {
+                int column = getColumn(viewArgs, coordinate);
+                int row    = getRow(viewArgs, coordinate);
+                if(renderMode == RenderMode.STAMP) {
+                    repaint(getCellBounds(column, row));
+                } else {
+                    CellView<T> view = getWindowCell(column, row);
+                    if(view != null) {
+                        view.setDataModel(gridEditor, gridEditor.getViewCell(column, row));
+                    }
+                }
+            }
+            return;
+        }
+        CellView<T> view = cells.get(coordinate);
+        if(view != null) {
+            view.setDataModel(gridEditor, gridEditor.getCell(coordinate));
+        }
+    }
+    
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        double progress = projectionProgress;
+        if(progress >= 0) {
+            Rectangle visible = getVisibleRect();
+            g.setColor(getForeground());
+            g.fillRect(visible.x, visible.y, (int) (visible.width * min(1d, progress)), 3);
+        }
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Dimension childSize = layout.childSize;
+        if(renderMode != RenderMode.STAMP || viewArgs == null
+           || childSize == null || childSize.width <= 0 || childSize.height <= 0) {
+            return;
+        }
+        
+        Rectangle clip = g.getClipBounds();
+        if(clip == null) {
+            clip = getVisibleRect();
+        }
+        int columnCount = viewArgs.getConfig().getColumnCount();
+        int rowCount    = viewArgs.getConfig().getRowCount();
+        int firstColumn = max(0, clip.x / childSize.width);
+        int lastColumn  = min(columnCount - 1, (clip.x + clip.width) / childSize.width);
+        int firstRow    = max(0, clip.y / childSize.height);
+        int lastRow     = min(rowCount - 1, (clip.y + clip.height) / childSize.height);
+        
+        if(stampCell == null) {
+            stampCell = new CellView<>(null, viewArgs.getMapper(), this::getCellRenderer, -1);
+        }
+        
+        // nur die Zellen im Clip-Bereich stempeln
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                stampCell.bind(column, row, gridEditor.getViewIndex(column, row));
+                stampCell.setDataModel(gridEditor, gridEditor.getViewCell(column, row));
+                rendererPane.paintComponent(g, stampCell, this,
+                                            column * childSize.width, row * childSize.height,
+                                            childSize.width, childSize.height,
+                                            true);
+            }
+        }
+        rendererPane.removeAll();
+    }
+    
+    private Action<CellView<T>> getCellRenderer(CellView<T> view) {
+        return this.cellRenderer;
     }
     
     private int getRow(GridEditor.UpdateCellArgs e, UDim coordinate) {
@@ -168,7 +408,15 @@ public class GridView<T> extends JPanel {
     }
     
     public Rectangle getCellBounds(int column, int row) {
-        return cells.get(new Size2DInt32(column, row)).getBounds();
+        Dimension childSize = layout.childSize;
+        if(childSize != null) {
+            // virtualisierte Zellen existieren ggf. nicht als Komponente
+            return new Rectangle(column * childSize.width, row * childSize.height, childSize.width, childSize.height);
+        }
+        CellView<T> view = cells.get(new Size2DInt32(column, row));
+        return view == null
+               ? new Rectangle()
+               : view.getBounds();
     }
     
     public enum StretchSideMode {
@@ -176,111 +424,162 @@ public class GridView<T> extends JPanel {
         VERTICAL_STRETCH
     }
     
-    private static class AspectedGridBagLayout<T> extends GridBagLayout {
+    public enum RenderMode {
+        /**
+         * Jede Zelle der Ansicht wird als {@link CellView} erzeugt.
+         */
+        COMPONENTS,
+        /**
+         * Nur Zellen im sichtbaren Bereich werden als {@link CellView} erzeugt und recycelt.
+         */
+        VIRTUALIZED,
+        /**
+         * Es werden keine Zell-Komponenten erzeugt, die sichtbaren Zellen werden über eine
+         * wiederverwendete {@link CellView} direkt in die GridView gezeichnet.
+         */
+        STAMP
+    }
+    
+    /**
+     * Berechnet die Zellgröße direkt aus Containergröße, Seitenverhältnis, Mindestgröße,
+     * Streckverhalten und Skalierung. Jede Zelle liegt bei (Spalte * Breite, Zeile * Höhe).
+     * Die Zellgröße wird nur bei geänderten Eingangsgrößen neu berechnet und nur Zellen,
+     * deren Grenzen sich tatsächlich ändern, werden neu gesetzt.
+     */
+    private static class AspectedGridLayout<T> implements LayoutManager {
         private final GridEditor<T>   gridEditor;
         private final GridView<T>     container;
         private       int             minHeight;
         private       int             minWidth;
+        private       int             columnCount;
+        private       int             rowCount;
         private       Dimension       containerSize;
         private       float           aspectRation;
         private       StretchSideMode aligningMode;
         private       Dimension       childSize;
         private       double          scale;
         
-        public AspectedGridBagLayout(GridView<T> container) {
+        public AspectedGridLayout(GridView<T> container) {
             this.container = container;
             this.gridEditor = container.gridEditor;
         }
         
+        @Override
+        public void addLayoutComponent(String name, Component comp) {
+        }
+        
+        @Override
+        public void removeLayoutComponent(Component comp) {
+        }
+        
+        @Override
+        public Dimension preferredLayoutSize(Container parent) {
+            if(childSize != null) {
+                return withInsets(parent, childSize.width * columnCount, childSize.height * rowCount);
+            }
+            return minimumLayoutSize(parent);
+        }
+        
+        @Override
+        public Dimension minimumLayoutSize(Container parent) {
+            GridEditor.UpdateCellArgs viewArgs = container.viewArgs;
+            if(viewArgs == null || viewArgs.getConfig().getCellMinSize() == null) {
+                return withInsets(parent, 0, 0);
+            }
+            GridEditor.CellConfig config      = viewArgs.getConfig();
+            Dimension             cellMinSize = config.getCellMinSize();
+            return withInsets(parent,
+                              (int) round(cellMinSize.width * config.getScale()) * config.getColumnCount(),
+                              (int) round(cellMinSize.height * config.getScale()) * config.getRowCount());
+        }
+        
+        private static Dimension withInsets(Container parent, int width, int height) {
+            Insets insets = parent.getInsets();
+            return new Dimension(width + insets.left + insets.right, height + insets.top + insets.bottom);
+        }
+        
         @Override
         public void layoutContainer(Container parent) {
-            Map<UDim, CellView<T>>  cellViews   = container.cells;
-            Collection<CellView<T>> cells       = cellViews.values();
-            int                     columnCount = gridEditor.getColumnCount();
-            int                     rowCount    = gridEditor.getRowCount();
-            if(cellViews.size() != rowCount * columnCount) {
+            Map<UDim, CellView<T>> cellViews = container.cells;
+            int                    columns   = gridEditor.getColumnCount();
+            int                    rows      = gridEditor.getRowCount();
+            if(container.renderMode == RenderMode.COMPONENTS && cellViews.size() != rows * columns) {
                 System.out.println("Es wurden zu wenig oder zuviele Zellen erzeugt!");
                 return;
             }
             
-            // hier wird alles aufgenommen, was verändernde Maße betrifft.
-            boolean update = childSize != null
-                             && aspectRation == gridEditor.getAspectRation()
-                             && aligningMode != null && aligningMode == container.stretchMode
-                             && gridEditor.getMinimumWidth() == minWidth
-                             && gridEditor.getMinimumHeight() == minHeight
-                             && scale == container.scale;
-            
-            Dimension nowSize = parent.getBounds().getSize();
-            
-            if(update) {
-                int oldWidth  = containerSize.width;
-                int oldHeight = containerSize.height;
-                childSize.width = (int) round(childSize.width * nowSize.width / (double) oldWidth);
-                childSize.height = (int) round(childSize.height * nowSize.height / (double) oldHeight);
-            }
-            
-            containerSize = nowSize;
-            if(container.scaleSize != null) {
-                containerSize = new Dimension(container.scaleSize.getWidth(), container.scaleSize.getHeight());
-            }
-            aspectRation = gridEditor.getAspectRation();
-            minWidth = gridEditor.getMinimumWidth();
-            minHeight = gridEditor.getMinimumHeight();
-            scale = container.scale;
+            Dimension nowSize = container.scaleSize != null
+                                ? new Dimension(container.scaleSize.getWidth(), container.scaleSize.getHeight())
+                                : parent.getSize();
             
-            if(update || childSize == null) {
+            // hier wird alles aufgenommen, was verändernde Maße betrifft.
+            boolean changed = childSize == null
+                              || !nowSize.equals(containerSize)
+                              || aspectRation != gridEditor.getAspectRation()
+                              || aligningMode != container.stretchMode
+                              || minWidth != gridEditor.getMinimumWidth()
+                              || minHeight != gridEditor.getMinimumHeight()
+                              || scale != container.scale
+                              || columnCount != columns
+                              || rowCount != rows;
+            if(changed) {
+                containerSize = nowSize;
+                aspectRation = gridEditor.getAspectRation();
+                aligningMode = container.stretchMode;
+                minWidth = gridEditor.getMinimumWidth();
+                minHeight = gridEditor.getMinimumHeight();
+                scale = container.scale;
+                columnCount = columns;
+                rowCount = rows;
                 updateChildSize();
             }
             
-            for (CellView<T> view : cells) {
-                CellModel<T> model = view.getModel();
-                if(model != null) {
-                    
-                    int column = gridEditor.getColumn(model.getPosition());
-                    int row    = gridEditor.getRow(model.getPosition());
-                    
-                    int x = column * childSize.width;
-                    int y = row * childSize.height;
-                    view.setBounds(x, y, childSize.width, childSize.height);
+            container.updateVirtualCells();
+            
+            int width  = childSize.width;
+            int height = childSize.height;
+            for (Component child : parent.getComponents()) {
+                if(!(child instanceof CellView)) {
+                    continue;
+                }
+                CellView<?> view = (CellView<?>) child;
+                int         x    = view.getColumn() * width;
+                int         y    = view.getRow() * height;
+                if(view.getX() != x || view.getY() != y || view.getWidth() != width || view.getHeight() != height) {
+                    view.setBounds(x, y, width, height);
                 }
             }
         }
         
         private void updateChildSize() {
-            // container size
-            System.out.println(String.format("Container <%s> size: %s", container.getName(), containerSize.toString()));
             int width, height;
             // calculate cell size
             
             // stretch
-            aligningMode = container.stretchMode;
             switch (aligningMode) {
                 case VERTICAL_STRETCH:
-                    height = (int) round(containerSize.height / (double) gridEditor.getRowCount());
+                    height = (int) round(containerSize.height / (double) rowCount);
                     width = round(aspectRation * height);
                     break;
                 default:
                 case HORIZONTAL_STRETCH:
-                    width = (int) round(containerSize.width / (double) gridEditor.getColumnCount());
+                    width = (int) round(containerSize.width / (double) columnCount);
                     height = round(1 / aspectRation * width);
                     break;
             }
             
             // minimum
             int oldWidth = width;
-            width = max(gridEditor.getMinimumWidth(), width);
+            width = max(minWidth, width);
             double h = width / (double) oldWidth;
             height = (int) round(height * h * scale);
             
             int oldHeight = height;
-            height = max(gridEditor.getMinimumHeight(), height);
+            height = max(minHeight, height);
             double w = height / (double) oldHeight;
             width = (int) round(width * w * scale);
             
             childSize = new Dimension(width, height);
-            System.out.println("Child size: " + childSize.toString());
         }
-        
     }
-}
\ No newline at end of file
+}
@@ -4,52 +4,93 @@ import javafx.beans.InvalidationListener;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 
-import java.util.Collection;
-import java.util.LinkedHashSet;
+import java.util.Arrays;
+import java.util.Objects;
 
 /**
+ * Die Listener werden in Arrays gehalten, die bei jeder An- und Abmeldung kopiert werden
+ * (copy-on-write). Das Benachrichtigen läuft so ohne Sperre und ohne Allokation über einen
+ * stabilen Stand der Listener. Ohne Listener teilen sich alle Instanzen dieselben leeren Arrays.
+ * Optional werden Benachrichtigungen unterdrückt, wenn sich der Wert nicht ändert.
+ *
  * @author Bjoern Frohberg, mydata GmbH
  */
 public class Observable<T> implements Cloneable, ObservableValue<T> {
     
-    private final Collection<ChangeListener<? super T>> changeListeners;
-    private final Collection<InvalidationListener> invalidationListeners;
-    private T nowValue;
-   
+    private static final ChangeListener[]       NO_CHANGE_LISTENERS       = new ChangeListener[0];
+    private static final InvalidationListener[] NO_INVALIDATION_LISTENERS = new InvalidationListener[0];
+    
+    private volatile ChangeListener<? super T>[] changeListeners;
+    private volatile InvalidationListener[]      invalidationListeners;
+    private          boolean                     skipUnchanged;
+    private          T                           nowValue;
+    
     public Observable() {
-        changeListeners = new LinkedHashSet<>();
-        invalidationListeners = new LinkedHashSet<>();
+        this(false);
+    }
+    
+    /**
+     * @param skipUnchanged {@code true}, wenn {@link #setValue(Object)} bei gleichem Wert
+     *                      ({@link Objects#equals(Object, Object)}) nicht benachrichtigen soll
+     */
+    public Observable(boolean skipUnchanged) {
+        //noinspection unchecked
+        changeListeners = NO_CHANGE_LISTENERS;
+        invalidationListeners = NO_INVALIDATION_LISTENERS;
+        this.skipUnchanged = skipUnchanged;
     }
     
     public void setValue(T value) {
         T oldValue = nowValue;
+        if(skipUnchanged && Objects.equals(oldValue, value)) {
+            return;
+        }
         this.nowValue = value;
         notifyChanged(oldValue);
     }
     
     public final void notifyChanged(T oldValue) {
-        changeListeners.forEach(h -> h.changed(this, oldValue, nowValue));
-        invalidationListeners.forEach(h -> h.invalidated(this));
+        ChangeListener<? super T>[] changes = changeListeners;
+        for (int i = 0; i < changes.length; i++) {
+            changes[i].changed(this, oldValue, nowValue);
+        }
+        InvalidationListener[] invalidations = invalidationListeners;
+        for (int i = 0; i < invalidations.length; i++) {
+            invalidations[i].invalidated(this);
+        }
+    }
+    
+    public boolean isSkipUnchanged() {
+        return skipUnchanged;
+    }
+    
+    public void setSkipUnchanged(boolean skipUnchanged) {
+        this.skipUnchanged = skipUnchanged;
+    }
+    
+    public boolean hasListeners() {
+        return changeListeners.length > 0 || invalidationListeners.length > 0;
     }
     
     @Override
-    public void addListener(ChangeListener<? super T> listener) {
-        changeListeners.add(listener);
+    public synchronized void addListener(ChangeListener<? super T> listener) {
+        changeListeners = append(changeListeners, listener);
     }
     
     @Override
-    public void removeListener(ChangeListener<? super T> listener) {
-        changeListeners.remove(listener);
+    public synchronized void removeListener(ChangeListener<? super T> listener) {
+        //noinspection unchecked
+        changeListeners = remove(changeListeners, listener, NO_CHANGE_LISTENERS);
     }
     
     @Override
-    public void addListener(InvalidationListener listener) {
-        invalidationListeners.add(listener);
+    public synchronized void addListener(InvalidationListener listener) {
+        invalidationListeners = append(invalidationListeners, listener);
     }
     
     @Override
-    public void removeListener(InvalidationListener listener) {
-        invalidationListeners.remove(listener);
+    public synchronized void removeListener(InvalidationListener listener) {
+        invalidationListeners = remove(invalidationListeners, listener, NO_INVALIDATION_LISTENERS);
     }
     
     @Override
@@ -73,4 +114,38 @@ public class Observable<T> implements Cloneable, ObservableValue<T> {
         //noinspection unchecked
         return (R) getClass().cast(clone);
     }
+    
+    private static <L> int indexOf(L[] listeners, Object listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if(listeners[i].equals(listener)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Wie zuvor mit einem Set wird jeder Listener nur einmal aufgenommen.
+     */
+    protected static <L> L[] append(L[] listeners, L listener) {
+        if(indexOf(listeners, listener) >= 0) {
+            return listeners;
+        }
+        L[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+        copy[listeners.length] = listener;
+        return copy;
+    }
+    
+    protected static <L> L[] remove(L[] listeners, Object listener, L[] empty) {
+        int index = indexOf(listeners, listener);
+        if(index < 0) {
+            return listeners;
+        }
+        if(listeners.length == 1) {
+            return empty;
+        }
+        L[] copy = Arrays.copyOf(listeners, listeners.length - 1);
+        System.arraycopy(listeners, index + 1, copy, index, listeners.length - index - 1);
+        return copy;
+    }
 }
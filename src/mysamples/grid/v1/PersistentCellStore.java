@@ -0,0 +1,177 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.UDim;
+
+/**
+ * Versionierter Datenstand aller Zellen als persistenter Trie über die linearen Adressen des
+ * {@link TiledCellStore}. Jeder Knoten verzweigt {@link #WIDTH}-fach, die Blätter halten
+ * unveränderliche {@link GridVersion.Entry Einträge} aus Position und Daten.
+ * <p>
+ * {@link #snapshot()} friert den aktuellen Stand in O(1) ein: Die Epoche wird erhöht, alle
+ * bestehenden Knoten gehören damit einer abgeschlossenen Epoche an und werden nicht mehr
+ * verändert. Ein Schreibzugriff ändert Knoten der laufenden Epoche direkt und kopiert nur die
+ * Knoten einer älteren Epoche auf seinem Pfad (Path Copying), alle übrigen Knoten teilt er mit
+ * den eingefrorenen Versionen. Leser einer {@link GridVersion} benötigen daher keine Sperre.
+ * <p>
+ * Schreibzugriffe werden über den Speicher serialisiert und sind kurz, die Reihenfolge je Zelle
+ * stellt der Aufrufer über die Kachelsperre des {@link TiledCellStore} sicher.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class PersistentCellStore<T> {
+    
+    public static final  int SHIFT = 5;
+    public static final  int WIDTH = 1 << SHIFT;
+    private static final int MASK  = WIDTH - 1;
+    
+    private final    int[]   dimensions;
+    private final    long[]  strides;
+    private final    int     levels;
+    private          Node    root;
+    private          int     size;
+    private          long    epoch;
+    private volatile boolean complete;
+    
+    public PersistentCellStore(UDim dimensions) {
+        this.dimensions = GridSnapshot.dimensions(dimensions);
+        this.strides = GridSnapshot.strides(this.dimensions);
+        long capacity = 1;
+        for (int dimension : this.dimensions) {
+            capacity *= dimension;
+        }
+        int bits = 64 - Long.numberOfLeadingZeros(Math.max(1, capacity - 1));
+        this.levels = Math.max(1, (bits + SHIFT - 1) / SHIFT);
+        this.epoch = 1;
+        this.root = new Node(epoch);
+    }
+    
+    /**
+     * @return die lineare Adresse der Koordinate oder {@code -1}, falls sie außerhalb der Dimensionen liegt
+     */
+    long address(UDim position) {
+        if(position.getDimensions() != dimensions.length) {
+            throw new IllegalArgumentException("Pos dimensions count inequivalent to dimensions-dimensions count!");
+        }
+        long address = 0;
+        for (int i = 0; i < dimensions.length; i++) {
+            int v = position.getV(i);
+            if(v < 0 || v >= dimensions[i]) {
+                return -1;
+            }
+            address += v * strides[i];
+        }
+        return address;
+    }
+    
+    int getLevels() {
+        return levels;
+    }
+    
+    /**
+     * Setzt die Daten der Zelle, auch {@code null}. Die Zelle gilt danach als vorhanden.
+     */
+    public synchronized void put(UDim position, T data) {
+        long address = address(position);
+        if(address < 0) {
+            throw new IllegalArgumentException("Position out of dimensions: " + position);
+        }
+        Object[] slots = editablePath(address);
+        int      slot  = (int) (address & MASK);
+        if(slots[slot] == null) {
+            size++;
+        }
+        slots[slot] = new GridVersion.Entry<>(position, data);
+    }
+    
+    public synchronized void remove(UDim position) {
+        long address = address(position);
+        if(address < 0 || find(root, levels, address) == null) {
+            return;
+        }
+        editablePath(address)[(int) (address & MASK)] = null;
+        size--;
+    }
+    
+    /**
+     * Friert den aktuellen Stand in O(1) ein. Nachfolgende Schreibzugriffe kopieren die
+     * betroffenen Pfade, die gelieferte Version bleibt unverändert.
+     */
+    public synchronized GridVersion<T> snapshot() {
+        GridVersion<T> version = new GridVersion<>(this, root, size, epoch);
+        epoch++;
+        return version;
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    /**
+     * @return {@code false}, solange der Speicher noch aus den vorhandenen Zellen aufgebaut wird
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+    
+    void setComplete() {
+        complete = true;
+    }
+    
+    /**
+     * Liefert die Blattfelder zur Adresse. Knoten älterer Epochen werden auf dem Weg kopiert und
+     * in ihren (bereits kopierten) Elternknoten eingehängt.
+     */
+    private Object[] editablePath(long address) {
+        if(root.epoch != epoch) {
+            root = root.copy(epoch);
+        }
+        Node node = root;
+        for (int level = levels - 1; level > 0; level--) {
+            int    slot  = (int) ((address >>> (level * SHIFT)) & MASK);
+            Node   child = (Node) node.slots[slot];
+            if(child == null) {
+                child = new Node(epoch);
+                node.slots[slot] = child;
+            } else if(child.epoch != epoch) {
+                child = child.copy(epoch);
+                node.slots[slot] = child;
+            }
+            node = child;
+        }
+        return node.slots;
+    }
+    
+    static Object find(Node root, int levels, long address) {
+        Node node = root;
+        for (int level = levels - 1; level > 0; level--) {
+            node = (Node) node.slots[(int) ((address >>> (level * SHIFT)) & MASK)];
+            if(node == null) {
+                return null;
+            }
+        }
+        return node.slots[(int) (address & MASK)];
+    }
+    
+    /**
+     * Knoten des Tries. Innere Knoten halten Kindknoten, die Knoten der untersten Ebene
+     * {@link GridVersion.Entry Einträge}. Verändert werden nur Knoten der laufenden Epoche.
+     */
+    static final class Node {
+        
+        final long     epoch;
+        final Object[] slots;
+        
+        private Node(long epoch) {
+            this(epoch, new Object[WIDTH]);
+        }
+        
+        private Node(long epoch, Object[] slots) {
+            this.epoch = epoch;
+            this.slots = slots;
+        }
+        
+        private Node copy(long epoch) {
+            return new Node(epoch, slots.clone());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.UDim;
+
+/**
+ * Erzeugt eine Koordinate aus den Werten aller Achsen.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public interface PositionFactory {
+    
+    UDim create(int[] values);
+}
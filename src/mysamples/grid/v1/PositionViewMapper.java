@@ -35,6 +35,19 @@ public interface PositionViewMapper {
         return null;
     }
     
+    /**
+     * Liefert für reine Schnitt-Ansichten - {@link #convert(int, int)} setzt nur die horizontale
+     * und vertikale Achse, alle anderen Achsen stehen fest - die festen Indizes aller Achsen
+     * (die Einträge der dargestellten Achsen werden ignoriert). Implementierungen liefern eine
+     * Kopie, Aufrufer verändern das Array nicht. Die Zellen einer solchen Ansicht werden per
+     * Schrittweiten adressiert, ohne Koordinaten zu erzeugen. {@code null}, wenn die Ansicht
+     * kein reiner Schnitt ist; solche Ansichten werden über eine zwischengespeicherte Projektion
+     * ({@code ViewProjectionCache}) dargestellt.
+     */
+    default int[] getSliceIndices() {
+        return null;
+    }
+    
     enum IterationMode {
         Y_THEN_X,
         X_THEN_Y;
@@ -6,6 +6,7 @@ import mysamples.grid.v1.model.Equal;
 import mysamples.grid.v1.model.ISimpleGrid;
 
 import javax.swing.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Diese Komponente zeigt einen scrollbaren Bereich,
@@ -25,6 +26,7 @@ public class ScrollableCellGrid<T> extends JScrollPane implements ISimpleGrid<T>
         this.gridEditor = new GridEditor<>(viewID, mapper, size, indicator);
         this.gridView = new GridView<>(gridEditor);
         setViewportView(gridView);
+        getViewport().addChangeListener(e -> gridView.onViewportChanged());
         
         // init
         UIUtils.normalizeScroll(getVerticalScrollBar(), 25, 3);
@@ -51,6 +53,10 @@ public class ScrollableCellGrid<T> extends JScrollPane implements ISimpleGrid<T>
         gridView.activateView(viewID);
     }
     
+    public CompletableFuture<Void> activateViewAsync(int viewID) {
+        return gridView.activateViewAsync(viewID);
+    }
+    
     @Override
     public GridEditor<T> edit() {
         return gridEditor;
@@ -61,6 +67,11 @@ public class ScrollableCellGrid<T> extends JScrollPane implements ISimpleGrid<T>
         gridView.setStretchMode(stretch);
     }
     
+    @Override
+    public void setRenderMode(GridView.RenderMode renderMode) {
+        gridView.setRenderMode(renderMode);
+    }
+    
     @Override
     public void setScale(double scaleFactor) {
         gridView.setScale(scaleFactor);
@@ -5,6 +5,7 @@ import mysamples.grid.v1.model.Equal;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Bjoern Frohberg, mydata GmbH
@@ -154,10 +155,18 @@ public class SimpleGrid<T> extends JPanel {
         cellGridView.activateView(viewID);
     }
     
+    public CompletableFuture<Void> activateViewAsync(int viewID) {
+        return cellGridView.activateViewAsync(viewID);
+    }
+    
     public void setStretchMode(GridView.StretchSideMode stretchMode) {
         cellGridView.setStretchMode(stretchMode);
     }
     
+    public void setRenderMode(GridView.RenderMode renderMode) {
+        cellGridView.setRenderMode(renderMode);
+    }
+    
     public void setScale(double scaleFactor) {
         cellGridView.setScale(scaleFactor);
     }
@@ -0,0 +1,264 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.UDim;
+import mysamples.grid.v1.model.CellModel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Dünn besetzter Zellspeicher. Jede Koordinate wird über Schrittweiten (Strides) der
+ * Dimensionen auf eine lineare Adresse abgebildet, der Adressraum ist in Kacheln zu je
+ * {@link #TILE_SIZE} aufeinanderfolgenden Adressen aufgeteilt. Eine Kachel ist damit ein
+ * Abschnitt entlang der ersten Achse (bei einem 2D-Grid mit 4096 Spalten genau eine Zeile,
+ * bei schmaleren Grids mehrere Zeilen), kein quadratischer Block. Eine Kachel wird erst
+ * angelegt, wenn eine ihrer Zellen gespeichert wird, und mit ihrer letzten Zelle wieder
+ * freigegeben, so dass der Speicherbedarf mit der Anzahl belegter Kacheln wächst und nicht
+ * mit der Fläche des Grids. Der Zellspeicher ist die einzige Ablage der Zellen im
+ * {@link GridEditor}.
+ * Der Speicher ist threadsicher: Lesen erfolgt ohne Sperre, Schreiben belegt nur die
+ * Sperre der betroffenen Kachel ({@link #lockFor(long)}), so dass mehrere Threads parallel in
+ * verschiedene Bereiche schreiben können. Die Sperren sind fest angelegt und werden
+ * reihum auf die Kacheln verteilt, sie bleiben für eine Adresse über die gesamte Lebensdauer
+ * des Speichers gleich, auch wenn deren Kachel zwischenzeitlich freigegeben wird.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class TiledCellStore<T> {
+    
+    public static final  int TILE_SHIFT = 12;
+    public static final  int TILE_SIZE  = 1 << TILE_SHIFT;
+    private static final int TILE_MASK  = TILE_SIZE - 1;
+    private static final int LOCKS      = 256;
+    
+    private final int[]                      dimensions;
+    private final long[]                     strides;
+    private final long                       capacity;
+    private final AtomicReferenceArray<Tile> tiles;
+    private final Object[]                   locks;
+    private final AtomicInteger              size;
+    private final AtomicInteger              tileCount;
+    
+    public TiledCellStore(UDim dimensions) {
+        int count = dimensions.getDimensions();
+        this.dimensions = new int[count];
+        this.strides = new long[count];
+        long stride = 1;
+        for (int i = 0; i < count; i++) {
+            this.dimensions[i] = dimensions.getV(i);
+            this.strides[i] = stride;
+            stride *= this.dimensions[i];
+        }
+        this.capacity = stride;
+        
+        long tileSlots = (capacity + TILE_MASK) >>> TILE_SHIFT;
+        if(tileSlots > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid dimensions exceed addressable cell count: " + capacity);
+        }
+        this.tiles = new AtomicReferenceArray<>((int) tileSlots);
+        this.locks = new Object[(int) Math.max(1, Math.min(tileSlots, LOCKS))];
+        for (int i = 0; i < locks.length; i++) {
+            this.locks[i] = new Object();
+        }
+        this.size = new AtomicInteger();
+        this.tileCount = new AtomicInteger();
+    }
+    
+    /**
+     * @return die lineare Adresse der Koordinate oder {@code -1}, falls sie außerhalb der Dimensionen liegt
+     */
+    public long address(UDim position) {
+        if(position.getDimensions() != dimensions.length) {
+            throw new IllegalArgumentException("Pos dimensions count inequivalent to dimensions-dimensions count!");
+        }
+        long address = 0;
+        for (int i = 0; i < dimensions.length; i++) {
+            int v = position.getV(i);
+            if(v < 0 || v >= dimensions[i]) {
+                return -1;
+            }
+            address += v * strides[i];
+        }
+        return address;
+    }
+    
+    public long getStride(int axis) {
+        return strides[axis];
+    }
+    
+    public long getCapacity() {
+        return capacity;
+    }
+    
+    public CellModel<T> get(UDim position) {
+        return get(address(position));
+    }
+    
+    public CellModel<T> get(long address) {
+        if(address < 0 || address >= capacity) {
+            return null;
+        }
+        Tile tile = tiles.get((int) (address >>> TILE_SHIFT));
+        //noinspection unchecked
+        return tile == null
+               ? null
+               : (CellModel<T>) tile.cells.get((int) (address & TILE_MASK));
+    }
+    
+    /**
+     * Liefert das Sperrobjekt für Schreibzugriffe auf die Adresse. Zellen verschiedener Kacheln
+     * können so parallel geschrieben werden. Die Abfrage legt keine Kachel an.
+     */
+    public Object lockFor(long address) {
+        return lockForTile((int) (checkAddress(address) >>> TILE_SHIFT));
+    }
+    
+    public Object lockFor(CellModel<T> cell) {
+        return lockFor(address(cell.getPosition()));
+    }
+    
+    /**
+     * Liefert das Sperrobjekt der Kachel, unter dem auch {@link #collectTile(int, Collection)} kopiert.
+     *
+     * @param tileIndex Index der Kachel, {@code 0 <= tileIndex < }{@link #getTileSlots()}
+     */
+    public Object lockForTile(int tileIndex) {
+        return locks[tileIndex % locks.length];
+    }
+    
+    /**
+     * Legt die Zelle unter ihrer Position ab und erzeugt dafür ggf. die Kachel.
+     *
+     * @return die zuvor abgelegte Zelle oder {@code null}
+     */
+    public CellModel<T> put(CellModel<T> cell) {
+        return store(cell, true);
+    }
+    
+    /**
+     * Legt die Zelle nur ab, wenn unter ihrer Position noch keine Zelle liegt.
+     *
+     * @return die bereits abgelegte Zelle oder {@code null}, wenn die übergebene Zelle abgelegt wurde
+     */
+    public CellModel<T> putIfAbsent(CellModel<T> cell) {
+        return store(cell, false);
+    }
+    
+    private CellModel<T> store(CellModel<T> cell, boolean replace) {
+        long address   = checkAddress(address(cell.getPosition()));
+        int  tileIndex = (int) (address >>> TILE_SHIFT);
+        int  slot      = (int) (address & TILE_MASK);
+        synchronized (lockForTile(tileIndex)) {
+            Tile tile = tiles.get(tileIndex);
+            if(tile == null) {
+                tile = new Tile();
+                tiles.set(tileIndex, tile);
+                tileCount.incrementAndGet();
+            }
+            //noinspection unchecked
+            CellModel<T> old = (CellModel<T>) tile.cells.get(slot);
+            if(old == null) {
+                tile.cells.set(slot, cell);
+                tile.count++;
+                size.incrementAndGet();
+            } else if(replace) {
+                tile.cells.set(slot, cell);
+            }
+            return old;
+        }
+    }
+    
+    /**
+     * Entfernt die Zelle, sofern sie unter ihrer Position abgelegt ist. Leere Kacheln werden freigegeben.
+     */
+    public boolean remove(CellModel<T> cell) {
+        long address = address(cell.getPosition());
+        if(address < 0) {
+            return false;
+        }
+        int tileIndex = (int) (address >>> TILE_SHIFT);
+        int slot      = (int) (address & TILE_MASK);
+        synchronized (lockForTile(tileIndex)) {
+            Tile tile = tiles.get(tileIndex);
+            if(tile == null || tile.cells.get(slot) != cell) {
+                return false;
+            }
+            tile.cells.set(slot, null);
+            size.decrementAndGet();
+            if(--tile.count == 0) {
+                tiles.set(tileIndex, null);
+                tileCount.decrementAndGet();
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Durchläuft alle belegten Zellen in Adressreihenfolge, leere Kacheln werden übersprungen.
+     * Jede Kachel wird unter ihrer Sperre kopiert und danach besucht, so dass je Kachel ein
+     * konsistenter Stand geliefert wird, ohne Schreiber anderer Kacheln aufzuhalten.
+     */
+    public void forEach(Consumer<? super CellModel<T>> action) {
+        List<CellModel<T>> buffer = new ArrayList<>();
+        for (int i = 0; i < tiles.length(); i++) {
+            collectTile(i, buffer);
+            buffer.forEach(action);
+            buffer.clear();
+        }
+    }
+    
+    /**
+     * Kopiert die belegten Zellen der Kachel unter ihrer Sperre in das Ziel. Erlaubt Durchläufe,
+     * die zwischen den Kacheln abgebrochen oder verteilt werden.
+     *
+     * @param tileIndex Index der Kachel, {@code 0 <= tileIndex < }{@link #getTileSlots()}
+     */
+    public void collectTile(int tileIndex, Collection<? super CellModel<T>> target) {
+        synchronized (lockForTile(tileIndex)) {
+            Tile tile = tiles.get(tileIndex);
+            if(tile == null) {
+                return;
+            }
+            for (int slot = 0; slot < TILE_SIZE; slot++) {
+                Object cell = tile.cells.get(slot);
+                if(cell != null) {
+                    //noinspection unchecked
+                    target.add((CellModel<T>) cell);
+                }
+            }
+        }
+    }
+    
+    /**
+     * @return Anzahl möglicher Kacheln (belegt oder nicht)
+     */
+    public int getTileSlots() {
+        return tiles.length();
+    }
+    
+    public int size() {
+        return size.get();
+    }
+    
+    public int getTileCount() {
+        return tileCount.get();
+    }
+    
+    private long checkAddress(long address) {
+        if(address < 0 || address >= capacity) {
+            throw new IndexOutOfBoundsException("Address outside of grid dimensions: " + address);
+        }
+        return address;
+    }
+    
+    private static final class Tile {
+        
+        private final AtomicReferenceArray<Object> cells = new AtomicReferenceArray<>(TILE_SIZE);
+        // unter der Sperre der Kachel
+        private       int                          count;
+    }
+}
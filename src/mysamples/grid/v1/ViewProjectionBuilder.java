@@ -0,0 +1,118 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.UDim;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Berechnet die geordneten Positionen einer Ansicht parallel in Zeilenbändern auf einem
+ * {@link ForkJoinPool}. Jedes Band schreibt in seinen eigenen Abschnitt des Ergebnisses, die
+ * Reihenfolge entspricht damit ohne nachträgliches Zusammenfügen der von
+ * {@link GridEditor#getViewIndex(int, int)}.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class ViewProjectionBuilder {
+    
+    /**
+     * Mindestanzahl Zellen eines Bandes, darunter wird nicht weiter geteilt.
+     */
+    public static final int BAND_CELLS = 16_384;
+    
+    private final PositionViewMapper mapper;
+    private final int                dimensionCount;
+    private final boolean            xThenY;
+    private final boolean            reverseH;
+    private final boolean            reverseV;
+    private final int                evens;
+    private final int                odds;
+    private final UDim[]             positions;
+    private final DoubleConsumer     progress;
+    private final AtomicLong         done;
+    
+    /**
+     * @param progress erhält den Anteil (0..1) bereits berechneter Positionen, Aufruf aus den
+     *                 Worker-Threads; darf {@code null} sein
+     */
+    public ViewProjectionBuilder(PositionViewMapper mapper, UDim dimensions, DoubleConsumer progress) {
+        int columnCount = dimensions.getV(mapper.getHorizontalAxisIndex());
+        int rowCount    = dimensions.getV(mapper.getVerticalAxisIndex());
+        
+        this.mapper = mapper;
+        this.dimensionCount = dimensions.getDimensions();
+        this.xThenY = mapper.getIterationMode() != PositionViewMapper.IterationMode.Y_THEN_X;
+        this.reverseH = mapper.iterateReversedHorizontal();
+        this.reverseV = mapper.iterateReversedVertical();
+        this.evens = xThenY
+                     ? columnCount
+                     : rowCount;
+        this.odds = xThenY
+                    ? rowCount
+                    : columnCount;
+        this.positions = new UDim[columnCount * rowCount];
+        this.progress = progress;
+        this.done = new AtomicLong();
+    }
+    
+    public List<UDim> build() {
+        return build(ForkJoinPool.commonPool());
+    }
+    
+    public List<UDim> build(ForkJoinPool pool) {
+        if(positions.length > 0) {
+            pool.invoke(new Band(0, odds));
+        }
+        return Arrays.asList(positions);
+    }
+    
+    private void fill(int oddFrom, int oddTo) {
+        for (int o = oddFrom; o < oddTo; o++) {
+            int odd  = reverseV
+                       ? odds - 1 - o
+                       : o;
+            int slot = o * evens;
+            for (int e = 0; e < evens; e++) {
+                int even = reverseH
+                           ? evens - 1 - e
+                           : e;
+                UDim pos = xThenY
+                           ? mapper.convert(even, odd)
+                           : mapper.convert(odd, even);
+                if(pos.getDimensions() != dimensionCount) {
+                    throw new IllegalArgumentException("Pos dimensions count inequivalent to dimensions-dimensions count!");
+                }
+                positions[slot + e] = pos;
+            }
+        }
+        if(progress != null) {
+            progress.accept(done.addAndGet((long) (oddTo - oddFrom) * evens) / (double) positions.length);
+        }
+    }
+    
+    private final class Band extends RecursiveAction {
+        
+        private final int from;
+        private final int to;
+        
+        private Band(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            int rows = to - from;
+            if(rows > 1 && (long) rows * evens > BAND_CELLS) {
+                int middle = from + rows / 2;
+                invokeAll(new Band(from, middle), new Band(middle, to));
+            } else {
+                fill(from, to);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package mysamples.grid.v1;
+
+import mysamples.common.udim.UDim;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hält die geordneten Positionen bereits berechneter Ansichten je View-ID, damit ein
+ * wiederholtes Aktivieren einer Ansicht ohne Neuberechnung auskommt. Der Speicher ist
+ * über die Gesamtzahl gehaltener Positionen begrenzt, bei Überschreitung werden die am
+ * längsten nicht genutzten Ansichten verworfen (LRU).
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class ViewProjectionCache {
+    
+    public static final int DEFAULT_MAX_POSITIONS = 4_000_000;
+    
+    private final LinkedHashMap<Integer, List<UDim>> projections;
+    private       long                               maxPositions;
+    private       long                               positions;
+    
+    public ViewProjectionCache() {
+        this(DEFAULT_MAX_POSITIONS);
+    }
+    
+    public ViewProjectionCache(long maxPositions) {
+        this.projections = new LinkedHashMap<>(16, 0.75f, true);
+        setMaxPositions(maxPositions);
+    }
+    
+    public synchronized List<UDim> get(int viewID) {
+        return projections.get(viewID);
+    }
+    
+    /**
+     * Legt die Projektion ab. Eine Projektion, die allein das Limit überschreitet, wird nicht gehalten.
+     */
+    public synchronized void put(int viewID, List<UDim> projection) {
+        invalidate(viewID);
+        if(projection.size() > maxPositions) {
+            return;
+        }
+        projections.put(viewID, projection);
+        positions += projection.size();
+        evict();
+    }
+    
+    public synchronized void invalidate(int viewID) {
+        List<UDim> removed = projections.remove(viewID);
+        if(removed != null) {
+            positions -= removed.size();
+        }
+    }
+    
+    public synchronized void clear() {
+        projections.clear();
+        positions = 0;
+    }
+    
+    public synchronized void setMaxPositions(long maxPositions) {
+        if(maxPositions < 0) {
+            throw new IllegalArgumentException("Max positions must not be negative: " + maxPositions);
+        }
+        this.maxPositions = maxPositions;
+        evict();
+    }
+    
+    public synchronized long getMaxPositions() {
+        return maxPositions;
+    }
+    
+    public synchronized int size() {
+        return projections.size();
+    }
+    
+    private void evict() {
+        Iterator<Map.Entry<Integer, List<UDim>>> eldest = projections.entrySet().iterator();
+        while (positions > maxPositions && eldest.hasNext()) {
+            positions -= eldest.next().getValue().size();
+            eldest.remove();
+        }
+    }
+}
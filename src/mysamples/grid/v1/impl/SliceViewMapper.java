@@ -0,0 +1,88 @@
+package mysamples.grid.v1.impl;
+
+import mysamples.common.udim.UDim;
+import mysamples.grid.v1.PositionFactory;
+import mysamples.grid.v1.PositionViewMapper;
+
+import java.util.Arrays;
+
+/**
+ * Schnitt durch ein N-dimensionales Grid: zwei Achsen werden horizontal und vertikal
+ * dargestellt, alle übrigen Achsen stehen auf einem festen Index. Da die Ansicht ein reiner
+ * Schnitt ist ({@link #getSliceIndices()}), berechnet der GridEditor die Zelladressen per
+ * Schrittweiten, ohne je Zelle eine Koordinate zu erzeugen. Das Verschieben des Schnitts
+ * erfolgt über {@code GridEditor#setSliceIndex(int, int)}.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class SliceViewMapper implements PositionViewMapper {
+    
+    private final int[]           dimensions;
+    private final int             horizontalAxis;
+    private final int             verticalAxis;
+    private final PositionFactory factory;
+    private final int[]           slice;
+    
+    public SliceViewMapper(UDim dimensions, int horizontalAxis, int verticalAxis, PositionFactory factory) {
+        int count = dimensions.getDimensions();
+        if(horizontalAxis == verticalAxis || horizontalAxis < 0 || horizontalAxis >= count || verticalAxis < 0 || verticalAxis >= count) {
+            throw new IllegalArgumentException("Invalid axes for a slice of " + count + " dimensions: " + horizontalAxis + ", " + verticalAxis);
+        }
+        this.dimensions = new int[count];
+        for (int i = 0; i < count; i++) {
+            this.dimensions[i] = dimensions.getV(i);
+        }
+        this.horizontalAxis = horizontalAxis;
+        this.verticalAxis = verticalAxis;
+        this.factory = factory;
+        this.slice = new int[count];
+    }
+    
+    @Override
+    public UDim convert(int x, int y) {
+        int[] values = slice.clone();
+        values[horizontalAxis] = x;
+        values[verticalAxis] = y;
+        return factory.create(values);
+    }
+    
+    @Override
+    public int getHorizontalAxisIndex() {
+        return horizontalAxis;
+    }
+    
+    @Override
+    public int getVerticalAxisIndex() {
+        return verticalAxis;
+    }
+    
+    /**
+     * @return Kopie der festen Indizes, Änderungen erfolgen über {@link #setSliceIndex(int, int)}
+     */
+    @Override
+    public int[] getSliceIndices() {
+        return slice.clone();
+    }
+    
+    public int getSliceIndex(int axis) {
+        return slice[axis];
+    }
+    
+    /**
+     * Setzt den festen Index einer Achse, die weder horizontal noch vertikal dargestellt wird.
+     */
+    public void setSliceIndex(int axis, int index) {
+        if(axis == horizontalAxis || axis == verticalAxis) {
+            throw new IllegalArgumentException("Axis " + axis + " is displayed and has no slice index!");
+        }
+        if(index < 0 || index >= dimensions[axis]) {
+            throw new IndexOutOfBoundsException("Slice index " + index + " outside of axis " + axis + " size " + dimensions[axis]);
+        }
+        slice[axis] = index;
+    }
+    
+    @Override
+    public String toString() {
+        return "Slice" + Arrays.toString(slice) + " h=" + horizontalAxis + " v=" + verticalAxis;
+    }
+}
@@ -0,0 +1,17 @@
+package mysamples.grid.v1.model;
+
+/**
+ * Eine inkrementell fortgeschriebene Kennzahl über die Daten einer Zeile bzw. Spalte. Jede
+ * Datenänderung einer Zelle wird als {@link #remove(Object)} des alten und {@link #add(Object)}
+ * des neuen Werts gemeldet, {@code null} wird nie übergeben.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public interface Aggregator<T, R> {
+    
+    void add(T value);
+    
+    void remove(T value);
+    
+    R getResult();
+}
@@ -0,0 +1,116 @@
+package mysamples.grid.v1.model;
+
+import java.util.Comparator;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Standard-{@link Aggregator}en. Anzahl und Summe werden in O(1) fortgeschrieben, Minimum und
+ * Maximum über eine sortierte Multimenge der Werte in O(log n).
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public final class Aggregators {
+    
+    private Aggregators() {
+    }
+    
+    public static <T> Supplier<Aggregator<T, Integer>> count() {
+        return Count::new;
+    }
+    
+    public static <T> Supplier<Aggregator<T, Double>> sum(ToDoubleFunction<? super T> value) {
+        return () -> new Sum<>(value);
+    }
+    
+    public static <T> Supplier<Aggregator<T, T>> min(Comparator<? super T> order) {
+        return () -> new Extreme<>(order, false);
+    }
+    
+    public static <T> Supplier<Aggregator<T, T>> max(Comparator<? super T> order) {
+        return () -> new Extreme<>(order, true);
+    }
+    
+    public static final class Count<T> implements Aggregator<T, Integer> {
+        
+        private int count;
+        
+        @Override
+        public void add(T value) {
+            count++;
+        }
+        
+        @Override
+        public void remove(T value) {
+            count--;
+        }
+        
+        @Override
+        public Integer getResult() {
+            return count;
+        }
+    }
+    
+    public static final class Sum<T> implements Aggregator<T, Double> {
+        
+        private final ToDoubleFunction<? super T> value;
+        private       double                      sum;
+        
+        public Sum(ToDoubleFunction<? super T> value) {
+            this.value = value;
+        }
+        
+        @Override
+        public void add(T value) {
+            sum += this.value.applyAsDouble(value);
+        }
+        
+        @Override
+        public void remove(T value) {
+            sum -= this.value.applyAsDouble(value);
+        }
+        
+        @Override
+        public Double getResult() {
+            return sum;
+        }
+    }
+    
+    /**
+     * Minimum bzw. Maximum. Die Werte werden mit ihrer Häufigkeit sortiert gehalten, damit
+     * auch das Entfernen des aktuellen Extremwerts ohne erneuten Durchlauf auskommt.
+     */
+    public static final class Extreme<T> implements Aggregator<T, T> {
+        
+        private final TreeMap<T, Integer> values;
+        private final boolean             max;
+        
+        public Extreme(Comparator<? super T> order, boolean max) {
+            this.values = new TreeMap<>(order);
+            this.max = max;
+        }
+        
+        @Override
+        public void add(T value) {
+            values.merge(value, 1, Integer::sum);
+        }
+        
+        @Override
+        public void remove(T value) {
+            values.computeIfPresent(value, (key, count) -> count > 1
+                                                           ? count - 1
+                                                           : null);
+        }
+        
+        @Override
+        public T getResult() {
+            if(values.isEmpty()) {
+                return null;
+            }
+            return max
+                   ? values.lastKey()
+                   : values.firstKey();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package mysamples.grid.v1.model;
+
+/**
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public interface CellDataListener<T> {
+    
+    void onDataChanged(CellModel<T> cell, T oldData, T newData);
+}
@@ -7,42 +7,82 @@ import mysamples.grid.v1.Observable;
 import java.util.Objects;
 
 /**
+ * Die Daten liegen direkt in der Zelle. Listener-Speicher entsteht erst, wenn sich jemand
+ * anmeldet: ohne Listener teilen sich alle Zellen leere Arrays, die {@link #getDataProperty()}
+ * wird erst beim ersten Zugriff erzeugt.
+ *
  * @author Bjoern Frohberg, mydata GmbH
  */
 @SuppressWarnings("ALL")
 public class CellModel<T> extends Observable<CellModel<T>> {
     
-    private final UDim          position;
-    private final Equal<T>      identicator;
-    private final Observable<T> data;
+    private static final CellDataListener[] NO_DATA_LISTENERS = new CellDataListener[0];
+    
+    private final    UDim                  position;
+    private final    Equal<T>              identicator;
+    private volatile T                     data;
+    private volatile CellDataListener<T>[] dataListeners;
+    private volatile DataProperty          dataProperty;
     
     public CellModel(UDim position, Equal<T> identicator) {
         this.position = position;
         this.identicator = identicator;
         this.position.consumed();
-        this.data = new Observable<>();
-        this.data.addListener((observable, oldValue, newValue) -> onUpdateData());
+        this.dataListeners = NO_DATA_LISTENERS;
         setValue(this);
     }
     
-    private void onUpdateData() {
+    private void onUpdateData(T oldData, T newData) {
+        CellDataListener<T>[] listeners = dataListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onDataChanged(this, oldData, newData);
+        }
         notifyChanged(this);
     }
     
+    /**
+     * Meldet Datenänderungen mit der Zelle, dem alten und dem neuen Wert. Im Gegensatz zu
+     * {@link #getDataProperty()} kann ein Listener so für beliebig viele Zellen geteilt werden.
+     */
+    public synchronized void addDataListener(CellDataListener<T> listener) {
+        dataListeners = append(dataListeners, listener);
+    }
+    
+    public synchronized void removeDataListener(CellDataListener<T> listener) {
+        dataListeners = remove(dataListeners, listener, NO_DATA_LISTENERS);
+    }
+    
     public UDim getPosition() {
         return position;
     }
     
     public void setData(T data) {
-        this.data.setValue(data);
+        T oldData = this.data;
+        this.data = data;
+        onUpdateData(oldData, data);
+        DataProperty property = dataProperty;
+        if(property != null) {
+            property.setValue(data);
+        }
     }
     
     public T getData() {
-        return data.getValue();
+        return data;
     }
     
     public ObservableValue<T> getDataProperty() {
-        return data;
+        DataProperty property = dataProperty;
+        if(property == null) {
+            synchronized (this) {
+                property = dataProperty;
+                if(property == null) {
+                    property = new DataProperty();
+                    property.setValue(data);
+                    dataProperty = property;
+                }
+            }
+        }
+        return property;
     }
     
     @Override
@@ -61,4 +101,15 @@ public class CellModel<T> extends Observable<CellModel<T>> {
         }
         return identicator.isEqual(a, b);
     }
+    
+    /**
+     * Beobachtbare Sicht auf die Daten der Zelle, wird nur bei Bedarf erzeugt.
+     */
+    private final class DataProperty extends Observable<T> {
+        
+        @Override
+        public T getValue() {
+            return data;
+        }
+    }
 }
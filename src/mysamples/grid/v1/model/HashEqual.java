@@ -0,0 +1,13 @@
+package mysamples.grid.v1.model;
+
+/**
+ * {@link Equal} mit begleitender Hash-Funktion, Voraussetzung für Hash-Indizes wie den
+ * Datenindex des {@code GridEditor}. Für Werte, die laut {@link #isEqual(Object, Object)} gleich
+ * sind, muss {@link #hashOf(Object)} denselben Hash liefern.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public interface HashEqual<T> extends Equal<T> {
+    
+    int hashOf(T value);
+}
@@ -12,6 +12,8 @@ public interface ISimpleGrid<T> {
     
     void setStretchMode(GridView.StretchSideMode stretch);
     
+    void setRenderMode(GridView.RenderMode renderMode);
+    
     void setScale(double scaleFactor);
     
     void scaleToSize(int width, int height);
@@ -0,0 +1,24 @@
+package mysamples.grid.v1.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binäre Kodierung der Zelldaten für Snapshots. {@code null} wird vom Aufrufer behandelt
+ * und nie übergeben.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public interface ValueCodec<T> {
+    
+    /**
+     * @return Anzahl Bytes, die {@link #write(Object, ByteBuffer)} für den Wert schreibt
+     */
+    int sizeOf(T value);
+    
+    void write(T value, ByteBuffer target);
+    
+    /**
+     * @param size Anzahl Bytes des Werts, wie von {@link #sizeOf(Object)} geliefert
+     */
+    T read(ByteBuffer source, int size);
+}
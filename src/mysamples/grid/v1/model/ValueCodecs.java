@@ -0,0 +1,89 @@
+package mysamples.grid.v1.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Standard-{@link ValueCodec}s für häufige Zelldaten.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public final class ValueCodecs {
+    
+    public static final ValueCodec<Integer> INTEGER = new ValueCodec<Integer>() {
+        @Override
+        public int sizeOf(Integer value) {
+            return Integer.BYTES;
+        }
+        
+        @Override
+        public void write(Integer value, ByteBuffer target) {
+            target.putInt(value);
+        }
+        
+        @Override
+        public Integer read(ByteBuffer source, int size) {
+            return source.getInt();
+        }
+    };
+    
+    public static final ValueCodec<Long> LONG = new ValueCodec<Long>() {
+        @Override
+        public int sizeOf(Long value) {
+            return Long.BYTES;
+        }
+        
+        @Override
+        public void write(Long value, ByteBuffer target) {
+            target.putLong(value);
+        }
+        
+        @Override
+        public Long read(ByteBuffer source, int size) {
+            return source.getLong();
+        }
+    };
+    
+    public static final ValueCodec<Double> DOUBLE = new ValueCodec<Double>() {
+        @Override
+        public int sizeOf(Double value) {
+            return Double.BYTES;
+        }
+        
+        @Override
+        public void write(Double value, ByteBuffer target) {
+            target.putDouble(value);
+        }
+        
+        @Override
+        public Double read(ByteBuffer source, int size) {
+            return source.getDouble();
+        }
+    };
+    
+    /**
+     * UTF-8. Die Größe wird über die kodierten Bytes ermittelt, große Texte werden dadurch
+     * zweimal kodiert.
+     */
+    public static final ValueCodec<String> STRING = new ValueCodec<String>() {
+        @Override
+        public int sizeOf(String value) {
+            return value.getBytes(StandardCharsets.UTF_8).length;
+        }
+        
+        @Override
+        public void write(String value, ByteBuffer target) {
+            target.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        @Override
+        public String read(ByteBuffer source, int size) {
+            byte[] bytes = new byte[size];
+            source.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+    
+    private ValueCodecs() {
+    }
+}
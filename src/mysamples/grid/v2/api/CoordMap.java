@@ -0,0 +1,178 @@
+package mysamples.grid.v2.api;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from a packed {@link IGrid.Coord} key to a value. Keys are kept in a primitive
+ * {@code long[]} with linear probing, so lookups by column and row neither box nor allocate.
+ * {@code null} values are not stored, {@link #put(long, Object)} with {@code null} removes the key.
+ *
+ * @author Bjoern Frohberg, mydata GmbH
+ */
+public class CoordMap<V> {
+    
+    private static final int   MIN_CAPACITY = 16;
+    private static final float LOAD_FACTOR  = 0.5f;
+    
+    private long[]   keys;
+    private Object[] values;
+    private int      mask;
+    private int      size;
+    private int      threshold;
+    
+    public CoordMap() {
+        this(MIN_CAPACITY);
+    }
+    
+    public CoordMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+    
+    public V get(int column, int row) {
+        return get(IGrid.Coord.pack(column, row));
+    }
+    
+    public V get(long key) {
+        int i = IGrid.Coord.hash(key) & mask;
+        Object value;
+        while ((value = values[i]) != null) {
+            if(keys[i] == key) {
+                //noinspection unchecked
+                return (V) value;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+    
+    public boolean containsKey(int column, int row) {
+        return get(column, row) != null;
+    }
+    
+    public V put(int column, int row, V value) {
+        return put(IGrid.Coord.pack(column, row), value);
+    }
+    
+    public V put(long key, V value) {
+        if(value == null) {
+            return remove(key);
+        }
+        int i = IGrid.Coord.hash(key) & mask;
+        Object old;
+        while ((old = values[i]) != null) {
+            if(keys[i] == key) {
+                values[i] = value;
+                //noinspection unchecked
+                return (V) old;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if(++size > threshold) {
+            rehash(values.length << 1);
+        }
+        return null;
+    }
+    
+    public V remove(int column, int row) {
+        return remove(IGrid.Coord.pack(column, row));
+    }
+    
+    public V remove(long key) {
+        int i = IGrid.Coord.hash(key) & mask;
+        Object value;
+        while ((value = values[i]) != null) {
+            if(keys[i] == key) {
+                shiftBack(i);
+                size--;
+                //noinspection unchecked
+                return (V) value;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+    
+    public void forEach(Visitor<? super V> visitor) {
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if(value != null) {
+                //noinspection unchecked
+                visitor.visit(IGrid.Coord.column(keys[i]), IGrid.Coord.row(keys[i]), (V) value);
+            }
+        }
+    }
+    
+    /**
+     * Backward-shift deletion: moves following entries of the probe chain into the gap, so no tombstones are needed.
+     */
+    private void shiftBack(int gap) {
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            Object value = values[i];
+            if(value == null) {
+                break;
+            }
+            int home = IGrid.Coord.hash(keys[i]) & mask;
+            // entry may only move to the gap if its home slot is not between gap and i (cyclic)
+            if(((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = value;
+                gap = i;
+            }
+        }
+        values[gap] = null;
+    }
+    
+    private void rehash(int capacity) {
+        long[]   oldKeys   = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            Object value = oldValues[i];
+            if(value != null) {
+                int j = IGrid.Coord.hash(oldKeys[i]) & mask;
+                while (values[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = value;
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+    
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+    
+    public interface Visitor<V> {
+        
+        void visit(int column, int row, V value);
+    }
+}
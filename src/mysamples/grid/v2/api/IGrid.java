@@ -11,8 +11,6 @@ import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
-import static java.lang.String.format;
-
 /**
  * @author Bjoern Frohberg, mydata GmbH
  */
@@ -41,7 +39,8 @@ public interface IGrid<T> {
         
         /**
          * Faster than {@link #findCells(Predicate)}, because of direct access cell by coordinate. It will find or not
-         * a cell aligned in coordinate.
+         * a cell aligned in coordinate. Implementations should keep their cells in a {@link CoordMap}, which looks
+         * them up by {@link Coord#pack(int, int)} without boxing or allocation.
          */
         CellViewModel<T> getCell(int column, int row);
     }
@@ -100,34 +99,63 @@ public interface IGrid<T> {
         }
     }
     
+    /**
+     * Column and row packed into one {@code long}. Hashing and equality work on the packed key, so they are
+     * exact and allocation free.
+     */
     class Coord {
         
-        private final int column;
-        private final int row;
-        private final int hashcode;
+        private final long key;
         
         public Coord(int column, int row) {
-            this.column = column;
-            this.row = row;
-            this.hashcode = format("x%d,y%d", column, row).hashCode();
+            this.key = pack(column, row);
+        }
+        
+        public static long pack(int column, int row) {
+            return ((long) column << 32) | (row & 0xFFFFFFFFL);
+        }
+        
+        public static int column(long key) {
+            return (int) (key >>> 32);
+        }
+        
+        public static int row(long key) {
+            return (int) key;
+        }
+        
+        /**
+         * Spreads the packed key over an {@code int} (Fibonacci hashing), so neighbouring cells don't cluster.
+         */
+        public static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+        
+        public long getKey() {
+            return key;
         }
         
         public int getColumn() {
-            return column;
+            return column(key);
         }
         
         public int getRow() {
-            return row;
+            return row(key);
         }
         
         @Override
         public int hashCode() {
-            return hashcode;
+            return hash(key);
         }
         
         @Override
         public boolean equals(Object obj) {
-            return obj instanceof Coord && ((Coord) obj).hashcode == hashcode;
+            return obj instanceof Coord && ((Coord) obj).key == key;
+        }
+        
+        @Override
+        public String toString() {
+            return "x" + getColumn() + ",y" + getRow();
         }
     }
 }